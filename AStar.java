@@ -1,16 +1,17 @@
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.Queue;
 import java.util.ArrayDeque;
-import java.util.PriorityQueue;
+import java.util.Set;
 
 public class AStar<E> {
     private static class Node<E> {
         private E data;
-        private transient Node<E> parent;
         private final int[] loc;
         private List<Contig<E>> neighbors;
 
@@ -43,59 +44,70 @@ public class AStar<E> {
 
     private static final int INFINITY = 0x7fffffff;
 
+    /**
+     * Finds a shortest path from start to end, guided by the straight-line
+     * distance to end. Nodes get dense ids so scores live in arrays, and a node
+     * whose score improves while it waits in the {@link IndexedPriorityQueue}
+     * has its key lowered instead of being added again.
+     * 
+     * @param start first node of the path
+     * @param end   last node of the path
+     * @return nodes of the path from start to end, or null if there is none
+     */
     public List<Node<E>> astar(Node<E> start, Node<E> end) {
-        Map<Node<E>, Integer> gScore = new HashMap<>(), fScore = new HashMap<>();
-        final Comparator<Node<E>> comparator = (x, y) -> {
-            return fScore.get(x) - fScore.get(y);
-        };
-        PriorityQueue<Node<E>> visited = new PriorityQueue<>(comparator);
         List<Node<E>> l = breadthFirstTraversal(start);
+        Map<Node<E>, Integer> ids = new HashMap<>();
         for (Node<E> e : l) {
-            gScore.put(e, INFINITY);
-            fScore.put(e, INFINITY);
+            ids.put(e, ids.size());
         }
-        final int startR = start.loc[0], startC = start.loc[1];
+        final int[] gScore = new int[l.size()], parents = new int[l.size()];
+        Arrays.fill(gScore, INFINITY);
         final int endR = end.loc[0], endC = end.loc[1];
-        int h = euclideanDist(startR, startC, endR, endC);
-        gScore.put(start, 0);
-        fScore.put(start, h);
-        visited.add(start);
-        while (!visited.isEmpty()) {
-            Node<E> curr = visited.remove();
+        IndexedPriorityQueue open = new IndexedPriorityQueue(l.size());
+        gScore[0] = 0;
+        parents[0] = -1;
+        open.insert(0, euclideanDist(start.loc[0], start.loc[1], endR, endC));
+        while (!open.isEmpty()) {
+            final int id = open.extractMin();
+            Node<E> curr = l.get(id);
             int[] coordinates = curr.loc;
             int r = coordinates[0], c = coordinates[1];
             if (r == endR && c == endC) {
                 List<Node<E>> path = new LinkedList<>();
-                while (curr != null) {
-                    path.add(0, curr);
-                    curr = curr.parent;
+                for (int i = id; i >= 0; i = parents[i]) {
+                    path.add(0, l.get(i));
                 }
                 return path;
             }
             for (Contig<E> e : curr.neighbors) {
                 Node<E> n = e.n;
-                int g = gScore.get(curr) + e.weight;
-                if (g < gScore.get(n)) {
-                    n.parent = curr;
+                final int next = ids.get(n);
+                int g = gScore[id] + e.weight;
+                if (g < gScore[next]) {
+                    parents[next] = id;
+                    gScore[next] = g;
                     int nr = n.loc[0], nc = n.loc[1];
                     int heuristic = euclideanDist(nr, nc, endR, endC);
                     int f = g + heuristic;
-                    fScore.put(n, f);
-                    gScore.put(n, g);
+                    if (open.contains(next)) {
+                        open.decreaseKey(next, f);
+                    } else {
+                        open.insert(next, f);
+                    }
                 }
-                visited.add(n);
             }
         }
         return null;
     }
 
     private List<Node<E>> breadthFirstTraversal(Node<E> start) {
-        List<Node<E>> visited = new LinkedList<>();
+        List<Node<E>> visited = new ArrayList<>();
+        Set<Node<E>> seen = new HashSet<>();
         Queue<Node<E>> q = new ArrayDeque<>();
         q.add(start);
         while (!q.isEmpty()) {
             Node<E> v = q.remove();
-            if (!visited.contains(v)) {
+            if (seen.add(v)) {
                 visited.add(v);
                 for (Contig<E> e : v.neighbors) {
                     q.add(e.n);
@@ -0,0 +1,385 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * In-memory B+Tree with primitive {@code long} keys. The binary trees here,
+ * {@link SearchTree}, {@link RedBlackTree} and {@link LongSearchTree}, spend an
+ * object of 30 to 50 bytes on every key and a likely cache miss on every step
+ * down or across the tree. A B+Tree keeps many keys in each node instead:
+ * <p>
+ * Inner nodes hold up to {@code INNER_CAPACITY} keys in a {@code long[]} of
+ * four cache lines, separating one more children; a search binary-searches
+ * each of them, so it touches a handful of nodes even for billions of keys.
+ * <p>
+ * Leaves hold up to {@code LEAF_CAPACITY} keys and their values in parallel
+ * arrays, and link to the next leaf, so a range scan finds its first key and
+ * then reads the keys sequentially, leaf after leaf, which the hardware
+ * prefetches. A key costs about 12 bytes in a full leaf plus its value.
+ * <p>
+ * {@code bulkLoad} builds the tree bottom-up from keys that are already sorted,
+ * such as those of {@code SearchTree.sort()}, in O(n) time: it fills every leaf
+ * and inner node to capacity, spreading any remainder evenly, rather than
+ * splitting nodes half full as insertions in order would.
+ *
+ * @version 1.0
+ * @see LongSearchTree
+ * @see RedBlackTree
+ * @param <V> type of the value
+ */
+public class BPlusTree<V> {
+    private static final int INNER_CAPACITY = 32;
+    private static final int LEAF_CAPACITY = 64;
+
+    private Node root = new Leaf();
+    private int size, height; // height counts the levels of inner nodes
+    private Inner[] path = new Inner[0];
+    private int[] indices = new int[0];
+
+    /**
+     * Node of the tree: sorted keys, of which the first {@code size} are used.
+     */
+    private abstract static class Node {
+        protected final long[] keys;
+        protected int size;
+
+        protected Node(int capacity) {
+            keys = new long[capacity];
+        }
+    }
+
+    /**
+     * Inner node: keys[i] is the smallest key under children[i + 1], so the
+     * keys under children[i] lie from keys[i - 1] inclusive to keys[i].
+     */
+    private static final class Inner extends Node {
+        private final Node[] children = new Node[INNER_CAPACITY + 1];
+
+        private Inner() {
+            super(INNER_CAPACITY);
+        }
+
+        /**
+         * Returns the child whose range holds the key: the number of keys no
+         * greater than it.
+         */
+        private int childIndex(long key) {
+            int low = 0, high = size;
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (keys[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class Leaf extends Node {
+        private final Object[] values = new Object[LEAF_CAPACITY];
+        private Leaf next;
+
+        private Leaf() {
+            super(LEAF_CAPACITY);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieves the value of a key.
+     *
+     * @param key key to be found
+     * @return value of the key, or null if it is not in the tree
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        final Leaf leaf = findLeaf(key);
+        final int i = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        return i < 0 ? null : (V) leaf.values[i];
+    }
+
+    public boolean containsKey(long key) {
+        final Leaf leaf = findLeaf(key);
+        return Arrays.binarySearch(leaf.keys, 0, leaf.size, key) >= 0;
+    }
+
+    /**
+     * Adds a key to the tree, or replaces its value if it is already there. A
+     * full leaf splits in half, and the first key of the new right half goes up
+     * to the parent, which may split in turn; a split root makes the tree one
+     * level taller.
+     *
+     * @param key   key to be added
+     * @param value value of the key
+     * @return previous value of the key, or null if it was not in the tree
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        Node node = root;
+        for (int depth = 0; depth < height; depth++) {
+            final Inner inner = (Inner) node;
+            final int i = inner.childIndex(key);
+            path[depth] = inner;
+            indices[depth] = i;
+            node = inner.children[i];
+        }
+        final Leaf leaf = (Leaf) node;
+        int i = Arrays.binarySearch(leaf.keys, 0, leaf.size, key);
+        if (i >= 0) {
+            final V old = (V) leaf.values[i];
+            leaf.values[i] = value;
+            return old;
+        }
+        i = -i - 1;
+        size++;
+        if (leaf.size < LEAF_CAPACITY) {
+            insert(leaf, i, key, value);
+            return null;
+        }
+        final Leaf right = new Leaf();
+        final int half = (LEAF_CAPACITY + 1) >>> 1;
+        right.size = LEAF_CAPACITY - half;
+        System.arraycopy(leaf.keys, half, right.keys, 0, right.size);
+        System.arraycopy(leaf.values, half, right.values, 0, right.size);
+        Arrays.fill(leaf.values, half, LEAF_CAPACITY, null);
+        leaf.size = half;
+        right.next = leaf.next;
+        leaf.next = right;
+        if (i <= half) {
+            insert(leaf, i, key, value);
+        } else {
+            insert(right, i - half, key, value);
+        }
+        promote(right.keys[0], right);
+        return null;
+    }
+
+    /**
+     * Passes every entry with a key from lo to hi inclusive to the consumer, in
+     * order, reading the leaves one after the other. The consumer must not add
+     * keys.
+     *
+     * @param lo       smallest key of the range
+     * @param hi       largest key of the range
+     * @param consumer receiver of the entries
+     * @return number of entries passed to the consumer
+     */
+    @SuppressWarnings("unchecked")
+    public int rangeScan(long lo, long hi, LongSearchTree.EntryConsumer<? super V> consumer) {
+        Leaf leaf = findLeaf(lo);
+        int i = Arrays.binarySearch(leaf.keys, 0, leaf.size, lo);
+        if (i < 0) {
+            i = -i - 1;
+        }
+        int count = 0;
+        for (; leaf != null; leaf = leaf.next, i = 0) {
+            final long[] keys = leaf.keys;
+            final Object[] values = leaf.values;
+            for (final int n = leaf.size; i < n; i++) {
+                if (keys[i] > hi) {
+                    return count;
+                }
+                consumer.accept(keys[i], (V) values[i]);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Builds a tree from keys in strictly ascending order in O(n) time.
+     *
+     * @param <V>    type of the value
+     * @param keys   keys in strictly ascending order
+     * @param values values of the keys, in the same order, or null for no values
+     * @return tree holding the keys
+     */
+    public static <V> BPlusTree<V> bulkLoad(long[] keys, V[] values) {
+        if (values != null && values.length != keys.length) {
+            throw new IllegalArgumentException("There are " + keys.length + " keys but " + values.length + " values.");
+        }
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i - 1] >= keys[i]) {
+                throw new IllegalArgumentException("Keys are not strictly ascending at index " + i);
+            }
+        }
+        final BPlusTree<V> tree = new BPlusTree<>();
+        final int n = keys.length;
+        if (n == 0) {
+            return tree;
+        }
+        int count = (n + LEAF_CAPACITY - 1) / LEAF_CAPACITY;
+        Node[] level = new Node[count];
+        long[] firstKeys = new long[count];
+        Leaf previous = null;
+        for (int j = 0, from = 0; j < count; j++) {
+            final Leaf leaf = new Leaf();
+            leaf.size = share(n, count, j);
+            System.arraycopy(keys, from, leaf.keys, 0, leaf.size);
+            if (values != null) {
+                System.arraycopy(values, from, leaf.values, 0, leaf.size);
+            }
+            if (previous != null) {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level[j] = leaf;
+            firstKeys[j] = keys[from];
+            from += leaf.size;
+        }
+        while (count > 1) {
+            final int parents = (count + INNER_CAPACITY) / (INNER_CAPACITY + 1);
+            final Node[] upper = new Node[parents];
+            final long[] upperFirstKeys = new long[parents];
+            for (int j = 0, from = 0; j < parents; j++) {
+                final Inner inner = new Inner();
+                final int children = share(count, parents, j);
+                System.arraycopy(level, from, inner.children, 0, children);
+                System.arraycopy(firstKeys, from + 1, inner.keys, 0, children - 1);
+                inner.size = children - 1;
+                upper[j] = inner;
+                upperFirstKeys[j] = firstKeys[from];
+                from += children;
+            }
+            level = upper;
+            firstKeys = upperFirstKeys;
+            count = parents;
+            tree.height++;
+        }
+        tree.root = level[0];
+        tree.size = n;
+        tree.path = new Inner[tree.height];
+        tree.indices = new int[tree.height];
+        return tree;
+    }
+
+    /**
+     * Splits total items as evenly as possible into parts, and returns the size
+     * of part j: the first total % parts parts get one more.
+     */
+    private static int share(int total, int parts, int j) {
+        return total / parts + (j < total % parts ? 1 : 0);
+    }
+
+    private Leaf findLeaf(long key) {
+        Node node = root;
+        for (int depth = 0; depth < height; depth++) {
+            final Inner inner = (Inner) node;
+            node = inner.children[inner.childIndex(key)];
+        }
+        return (Leaf) node;
+    }
+
+    private static void insert(Leaf leaf, int i, long key, Object value) {
+        System.arraycopy(leaf.keys, i, leaf.keys, i + 1, leaf.size - i);
+        System.arraycopy(leaf.values, i, leaf.values, i + 1, leaf.size - i);
+        leaf.keys[i] = key;
+        leaf.values[i] = value;
+        leaf.size++;
+    }
+
+    /**
+     * Inserts a separator and the new node to its right into the parents along
+     * the path of the last {@code put}, splitting full parents on the way up.
+     * A full inner node with the new key has INNER_CAPACITY + 1 keys: the middle
+     * one moves up, and the keys on either side stay in the two halves.
+     */
+    private void promote(long separator, Node child) {
+        for (int depth = height - 1; depth >= 0; depth--) {
+            final Inner inner = path[depth];
+            final int i = indices[depth];
+            path[depth] = null;
+            if (inner.size < INNER_CAPACITY) {
+                System.arraycopy(inner.keys, i, inner.keys, i + 1, inner.size - i);
+                System.arraycopy(inner.children, i + 1, inner.children, i + 2, inner.size - i);
+                inner.keys[i] = separator;
+                inner.children[i + 1] = child;
+                inner.size++;
+                return;
+            }
+            final long[] keys = new long[INNER_CAPACITY + 1];
+            final Node[] children = new Node[INNER_CAPACITY + 2];
+            System.arraycopy(inner.keys, 0, keys, 0, i);
+            System.arraycopy(inner.keys, i, keys, i + 1, INNER_CAPACITY - i);
+            keys[i] = separator;
+            System.arraycopy(inner.children, 0, children, 0, i + 1);
+            System.arraycopy(inner.children, i + 1, children, i + 2, INNER_CAPACITY - i);
+            children[i + 1] = child;
+            final int mid = (INNER_CAPACITY + 1) >>> 1;
+            final Inner right = new Inner();
+            inner.size = mid;
+            right.size = INNER_CAPACITY - mid;
+            System.arraycopy(keys, 0, inner.keys, 0, mid);
+            System.arraycopy(children, 0, inner.children, 0, mid + 1);
+            Arrays.fill(inner.children, mid + 1, INNER_CAPACITY + 1, null);
+            System.arraycopy(keys, mid + 1, right.keys, 0, right.size);
+            System.arraycopy(children, mid + 1, right.children, 0, right.size + 1);
+            separator = keys[mid];
+            child = right;
+        }
+        final Inner newRoot = new Inner();
+        newRoot.keys[0] = separator;
+        newRoot.children[0] = root;
+        newRoot.children[1] = child;
+        newRoot.size = 1;
+        root = newRoot;
+        height++;
+        path = new Inner[height];
+        indices = new int[height];
+    }
+
+    public static void main(String[] args) {
+        final int num = 5000000, scans = 100000, width = 1000;
+        Random random = new Random(0);
+        long[] keys = new long[num];
+        for (int i = 0; i < num; i++) {
+            keys[i] = random.nextLong() >>> 2;
+        }
+        long[] sorted = Arrays.stream(keys).sorted().distinct().toArray();
+
+        long begin = System.currentTimeMillis();
+        BPlusTree<Long> bulk = BPlusTree.bulkLoad(sorted, null);
+        long end = System.currentTimeMillis();
+        System.out.println("Bulk load: " + (end - begin));
+
+        BPlusTree<Long> inserted = new BPlusTree<>();
+        LongSearchTree<Long> binary = new LongSearchTree<>();
+        begin = System.currentTimeMillis();
+        for (long key : keys) {
+            inserted.put(key, null);
+        }
+        end = System.currentTimeMillis();
+        System.out.println("Put: " + (end - begin));
+        for (long key : keys) {
+            binary.add(key, null);
+        }
+
+        final long step = (Long.MAX_VALUE >>> 1) / num * width;
+        final long[] los = new long[scans];
+        for (int i = 0; i < scans; i++) {
+            los[i] = random.nextLong() >>> 2;
+        }
+        long visited = 0;
+        begin = System.currentTimeMillis();
+        for (long lo : los) {
+            visited += bulk.rangeScan(lo, lo + step, (k, v) -> { });
+        }
+        end = System.currentTimeMillis();
+        System.out.println("B+Tree range scans: " + (end - begin) + " (" + visited / scans + " entries each)");
+        visited = 0;
+        begin = System.currentTimeMillis();
+        for (long lo : los) {
+            visited += binary.rangeScan(lo, lo + step, (k, v) -> { });
+        }
+        end = System.currentTimeMillis();
+        System.out.println("Binary tree range scans: " + (end - begin) + " (" + visited / scans + " entries each)");
+    }
+}
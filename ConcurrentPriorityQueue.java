@@ -0,0 +1,274 @@
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe priority queue for many producers and consumers. {@link Heap}
+ * and the int {@link PriorityQueue} are unsynchronized, and wrapping either in
+ * a single lock makes every thread wait for the same lock. There are two
+ * implementations, with different guarantees:
+ * <p>
+ * {@link Strict}: a lock-free skip list. {@code poll} always returns the
+ * smallest element, and equal elements come out in the order they were added.
+ * Threads only contend where their operations touch the same nodes, but every
+ * {@code poll} races for the head of the list.
+ * <p>
+ * {@link Relaxed}: a MultiQueue, several heaps each behind its own lock. An
+ * element is added to a random heap. {@code poll} picks two random heaps,
+ * reads their smallest elements without locking (each heap publishes it in a
+ * volatile field), and removes from the heap with the smaller one. With c
+ * heaps per thread, the removed element is expected to be among the smallest
+ * O(c * threads) elements rather than the smallest, and threads rarely meet on
+ * the same lock. This suits schedulers, where priorities only need to be
+ * roughly respected.
+ *
+ * @version 1.0
+ * @see Heap
+ * @param <E> type of the element
+ */
+public interface ConcurrentPriorityQueue<E> {
+    /**
+     * Adds an element to the queue.
+     *
+     * @param element element to be added
+     */
+    public void add(E element);
+
+    /**
+     * Removes the smallest element, or for a relaxed queue, one of the smallest.
+     *
+     * @return removed element, or null if the queue is empty
+     */
+    public E poll();
+
+    /**
+     * Returns the number of elements, which may already be out of date when
+     * other threads are adding or removing.
+     *
+     * @return number of elements
+     */
+    public int size();
+
+    public default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Creates a queue that always removes the smallest element.
+     *
+     * @param <E>        type of the element
+     * @param comparator order of the queue
+     * @return strict queue
+     */
+    public static <E> ConcurrentPriorityQueue<E> strict(Comparator<? super E> comparator) {
+        return new Strict<>(comparator);
+    }
+
+    /**
+     * Creates a MultiQueue with two heaps per available processor.
+     *
+     * @param <E>        type of the element
+     * @param comparator order of the queue
+     * @return relaxed queue
+     */
+    public static <E> ConcurrentPriorityQueue<E> relaxed(Comparator<? super E> comparator) {
+        return new Relaxed<>(comparator, Runtime.getRuntime().availableProcessors() << 1);
+    }
+
+    /**
+     * Lock-free skip list of elements tagged with a sequence number, which keeps
+     * equal elements apart and orders them first in, first out.
+     *
+     * @param <E> type of the element
+     */
+    public static final class Strict<E> implements ConcurrentPriorityQueue<E> {
+        private final ConcurrentSkipListSet<Entry<E>> entries;
+        private final AtomicLong sequence = new AtomicLong();
+        private final LongAdder size = new LongAdder();
+
+        private static final class Entry<E> {
+            private final E element;
+            private final long sequence;
+
+            private Entry(E element, long sequence) {
+                this.element = element;
+                this.sequence = sequence;
+            }
+        }
+
+        public Strict(Comparator<? super E> comparator) {
+            entries = new ConcurrentSkipListSet<>((x, y) -> {
+                final int c = comparator.compare(x.element, y.element);
+                return c != 0 ? c : Long.compare(x.sequence, y.sequence);
+            });
+        }
+
+        @Override
+        public void add(E element) {
+            entries.add(new Entry<>(element, sequence.getAndIncrement()));
+            size.increment();
+        }
+
+        @Override
+        public E poll() {
+            final Entry<E> first = entries.pollFirst();
+            if (first == null) {
+                return null;
+            }
+            size.decrement();
+            return first.element;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.max(0, size.sum());
+        }
+    }
+
+    /**
+     * MultiQueue: heaps behind their own locks, added to at random and removed
+     * from by the better of two random choices.
+     *
+     * @param <E> type of the element
+     */
+    public static final class Relaxed<E> implements ConcurrentPriorityQueue<E> {
+        private final Comparator<? super E> comparator;
+        private final Stripe<E>[] stripes;
+        private final LongAdder size = new LongAdder();
+
+        /**
+         * One heap, its lock, and a copy of its smallest element that can be read
+         * without the lock.
+         */
+        private static final class Stripe<E> extends ReentrantLock {
+            private static final long serialVersionUID = 1L;
+            private final java.util.PriorityQueue<E> heap;
+            private volatile E top;
+
+            private Stripe(Comparator<? super E> comparator) {
+                heap = new java.util.PriorityQueue<>(comparator);
+            }
+        }
+
+        /**
+         * Creates a MultiQueue.
+         *
+         * @param comparator order of the queue
+         * @param queues     number of heaps, usually two per thread
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Relaxed(Comparator<? super E> comparator, int queues) {
+            if (queues < 2) {
+                throw new IllegalArgumentException("At least two heaps are required.");
+            }
+            this.comparator = comparator;
+            stripes = new Stripe[queues];
+            for (int i = 0; i < queues; i++) {
+                stripes[i] = new Stripe<>(comparator);
+            }
+        }
+
+        /**
+         * Adds an element to the first random heap whose lock is free.
+         */
+        @Override
+        public void add(E element) {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            Stripe<E> stripe;
+            do {
+                stripe = stripes[random.nextInt(stripes.length)];
+            } while (!stripe.tryLock());
+            try {
+                stripe.heap.add(element);
+                stripe.top = stripe.heap.peek();
+            } finally {
+                stripe.unlock();
+            }
+            size.increment();
+        }
+
+        /**
+         * Removes the smallest element of the better of two random heaps. If both
+         * look empty too often, every heap is checked under its lock before giving
+         * up, so null means every heap was empty when it was checked.
+         */
+        @Override
+        public E poll() {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int attempt = 0; attempt < stripes.length; attempt++) {
+                final Stripe<E> a = stripes[random.nextInt(stripes.length)];
+                final Stripe<E> b = stripes[random.nextInt(stripes.length)];
+                final E topA = a.top, topB = b.top;
+                final Stripe<E> stripe;
+                if (topA == null) {
+                    if (topB == null) {
+                        continue;
+                    }
+                    stripe = b;
+                } else {
+                    stripe = topB == null || comparator.compare(topA, topB) <= 0 ? a : b;
+                }
+                if (stripe.tryLock()) {
+                    try {
+                        final E element = stripe.heap.poll();
+                        if (element != null) {
+                            stripe.top = stripe.heap.peek();
+                            size.decrement();
+                            return element;
+                        }
+                    } finally {
+                        stripe.unlock();
+                    }
+                }
+            }
+            for (Stripe<E> stripe : stripes) {
+                stripe.lock();
+                try {
+                    final E element = stripe.heap.poll();
+                    if (element != null) {
+                        stripe.top = stripe.heap.peek();
+                        size.decrement();
+                        return element;
+                    }
+                } finally {
+                    stripe.unlock();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.max(0, size.sum());
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        final int threads = 8, perThread = 1000000;
+        for (ConcurrentPriorityQueue<Long> queue : List.of(
+                ConcurrentPriorityQueue.<Long>strict(Comparator.naturalOrder()),
+                ConcurrentPriorityQueue.<Long>relaxed(Comparator.naturalOrder()))) {
+            Thread[] workers = new Thread[threads];
+            long begin = System.currentTimeMillis();
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < perThread; i++) {
+                        queue.add(random.nextLong(1000000));
+                        queue.poll();
+                    }
+                });
+                workers[t].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            long end = System.currentTimeMillis();
+            System.out.println(queue.getClass().getSimpleName() + ": " + (end - begin));
+        }
+    }
+}
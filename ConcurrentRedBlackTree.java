@@ -0,0 +1,258 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Thread-safe ordered map: a {@link RedBlackTree} behind a {@link StampedLock}.
+ * A tree wrapped in a synchronized block makes readers wait for each other as
+ * well as for writers; here they do not:
+ * <p>
+ * Point reads ({@code get}, {@code containsKey}, {@code size}) are optimistic.
+ * They take a stamp, which is a single volatile read, walk the tree without
+ * locking, and keep the result if no write has started since the stamp. A
+ * reader racing with a writer may see the tree half rotated, even with a
+ * cycle, so the walk stops after {@code MAX_STEPS} nodes, more than the height
+ * of any red-black tree that fits in memory, and exceptions from inconsistent
+ * nodes are discarded. Only a read that overlaps a write retries, under the
+ * read lock, so with mostly reads the readers hardly ever write to shared
+ * memory.
+ * <p>
+ * Range scans, {@code rank} and {@code select} hold the read lock, so they see
+ * a single state of the tree and are linearizable. A scan copies its range
+ * under the lock and passes it to the consumer afterwards, so a slow consumer
+ * does not hold up writers.
+ * <p>
+ * Writes take the write lock. Rebalancing can recolor nodes up to the root,
+ * and every insertion or removal updates the subtree sizes of all its
+ * ancestors, so any two writes conflict at the root: finer locks would only be
+ * taken and released in the same order. Writes are therefore fully
+ * serialized, so a workload with half writes runs them one at a time and
+ * scales no better than a single lock.
+ *
+ * @version 1.0
+ * @see RedBlackTree
+ * @see ConcurrentPriorityQueue
+ * @param <K> type of the key
+ * @param <V> type of the value
+ */
+public class ConcurrentRedBlackTree<K, V> {
+    private static final int MAX_STEPS = 2 * Integer.SIZE;
+    private static final Object ABSENT = new Object();
+    private static final Object ABANDONED = new Object();
+    private final RedBlackTree<K, V> tree;
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Creates an empty map ordered by the natural order of the keys, which must
+     * be {@link Comparable}.
+     */
+    public ConcurrentRedBlackTree() {
+        tree = new RedBlackTree<>();
+    }
+
+    /**
+     * Creates an empty map.
+     *
+     * @param comparator order of the keys
+     */
+    public ConcurrentRedBlackTree(Comparator<? super K> comparator) {
+        tree = new RedBlackTree<>(comparator);
+    }
+
+    /**
+     * Retrieves the value of a key, optimistically if no write is under way.
+     *
+     * @param key key to be found
+     * @return value of the key, or null if it is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        final Object value = lookup(key);
+        return value == ABSENT ? null : (V) value;
+    }
+
+    /**
+     * Tells whether a key is in the map, optimistically if no write is under
+     * way. Values may be null, so this does not rely on {@code get}.
+     *
+     * @param key key to be found
+     * @return whether the key is in the map
+     */
+    public boolean containsKey(K key) {
+        return lookup(key) != ABSENT;
+    }
+
+    /**
+     * Looks a key up optimistically, and under the read lock if a write got in
+     * the way.
+     *
+     * @return value of the key, or ABSENT
+     */
+    private Object lookup(K key) {
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                final Object value = tree.get(key, MAX_STEPS, ABSENT, ABANDONED);
+                if (value != ABANDONED && lock.validate(stamp)) {
+                    return value;
+                }
+            } catch (RuntimeException e) {
+                // inconsistent nodes seen during a write; read again under the lock
+            }
+        }
+        final long readStamp = lock.readLock();
+        try {
+            return tree.get(key, Integer.MAX_VALUE, ABSENT, ABANDONED);
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    /**
+     * Returns the number of elements, which may already be out of date when
+     * other threads are writing.
+     *
+     * @return number of elements
+     */
+    public int size() {
+        final long stamp = lock.tryOptimisticRead();
+        final int size = tree.size();
+        if (stamp != 0 && lock.validate(stamp)) {
+            return size;
+        }
+        final long readStamp = lock.readLock();
+        try {
+            return tree.size();
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Adds an element, or replaces the value of its key.
+     *
+     * @param key   key of the element
+     * @param value value of the element
+     * @return previous value of the key, or null if it was not in the map
+     */
+    public V put(K key, V value) {
+        final long stamp = lock.writeLock();
+        try {
+            return tree.put(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes an element.
+     *
+     * @param key key of the element
+     * @return value of the key, or null if it was not in the map
+     */
+    public V remove(K key) {
+        final long stamp = lock.writeLock();
+        try {
+            return tree.remove(key);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Passes every element with a key from lo to hi inclusive to the consumer,
+     * in order, as they were at one instant. The consumer runs after the lock is
+     * released, so it may itself read or write the map.
+     *
+     * @param lo       smallest key of the range
+     * @param hi       largest key of the range
+     * @param consumer receiver of the keys and values
+     * @return number of elements passed to the consumer
+     */
+    @SuppressWarnings("unchecked")
+    public int rangeScan(K lo, K hi, BiConsumer<? super K, ? super V> consumer) {
+        final List<Object> buffer = new ArrayList<>();
+        final long stamp = lock.readLock();
+        try {
+            tree.rangeScan(lo, hi, (key, value) -> {
+                buffer.add(key);
+                buffer.add(value);
+            });
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        for (int i = 0; i < buffer.size(); i += 2) {
+            consumer.accept((K) buffer.get(i), (V) buffer.get(i + 1));
+        }
+        return buffer.size() >> 1;
+    }
+
+    /**
+     * Counts the keys smaller than a key.
+     *
+     * @param key key to be ranked
+     * @return number of smaller keys
+     */
+    public int rank(K key) {
+        final long stamp = lock.readLock();
+        try {
+            return tree.rank(key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the k-th smallest key (counting from 0).
+     *
+     * @param k rank of the key, from 0 to size() - 1
+     * @return k-th smallest key
+     */
+    public K select(int k) {
+        final long stamp = lock.readLock();
+        try {
+            return tree.select(k);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        final int threads = 8, perThread = 1000000, keys = 100000;
+        ConcurrentRedBlackTree<Integer, Integer> map = new ConcurrentRedBlackTree<>();
+        for (int i = 0; i < keys; i += 2) {
+            map.put(i, i);
+        }
+        Thread[] workers = new Thread[threads];
+        long begin = System.currentTimeMillis();
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < perThread; i++) {
+                    final int key = random.nextInt(keys);
+                    final int operation = random.nextInt(100);
+                    if (operation < 3) {
+                        map.put(key, key);
+                    } else if (operation < 5) {
+                        map.remove(key);
+                    } else {
+                        map.get(key);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long end = System.currentTimeMillis();
+        System.out.println("95% reads: " + (end - begin) + " (" + map.size() + " keys)");
+    }
+}
@@ -0,0 +1,156 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min-heap of ints in which every node has d children instead of two. A wider
+ * heap is shallower, log base d of n levels, so an element added to it moves
+ * up fewer levels. Removing the first element still compares all d children
+ * at each level, but those children are d consecutive ints: 16 bytes for a
+ * 4-ary heap and 32 bytes for an 8-ary heap, so each level costs about one
+ * cache line where a {@link PriorityQueue} touches one line per comparison
+ * once the heap outgrows the cache.
+ * <p>
+ * The root is stored at index d - 1, which makes every group of siblings start
+ * at a multiple of d: the children of node i are at d(i - d + 2) to
+ * d(i - d + 2) + d - 1. The arity must be a power of two so that the index
+ * arithmetic is shifts.
+ *
+ * @version 1.0
+ * @see PriorityQueue
+ * @see PairingHeap
+ * @see IntHeap
+ */
+public class DaryHeap {
+    public static final int DEFAULT_ARITY = 4;
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+    private final int shift; // log2 of the arity
+    private final int root;
+    private int[] heap;
+    private int end; // index after the last element
+
+    public DaryHeap() {
+        this(DEFAULT_ARITY);
+    }
+
+    public DaryHeap(int arity) {
+        this(arity, DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param arity    number of children per node, a power of two such as 4 or 8
+     * @param capacity number of elements held before the heap grows
+     */
+    public DaryHeap(int arity, int capacity) {
+        if (arity < 2 || Integer.bitCount(arity) != 1) {
+            throw new IllegalArgumentException("Arity must be a power of two: " + arity);
+        }
+        shift = Integer.numberOfTrailingZeros(arity);
+        root = arity - 1;
+        heap = new int[root + Math.max(capacity, 1)];
+        end = root;
+    }
+
+    public int size() {
+        return end - root;
+    }
+
+    public boolean isEmpty() {
+        return end == root;
+    }
+
+    /**
+     * Returns the smallest element.
+     *
+     * @return smallest element
+     */
+    public int peek() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Empty heap.");
+        }
+        return heap[root];
+    }
+
+    /**
+     * Adds an element to the heap.
+     *
+     * @param element element to be added
+     */
+    public void add(int element) {
+        if (end == heap.length) {
+            heap = Arrays.copyOf(heap, root + (size() << 1));
+        }
+        int index = end++;
+        while (index > root) {
+            final int parent = (index >>> shift) + root - 1;
+            if (heap[parent] <= element) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = element;
+    }
+
+    /**
+     * Removes the smallest element.
+     *
+     * @return smallest element
+     */
+    public int remove() {
+        final int first = peek();
+        final int last = heap[--end];
+        if (end > root) {
+            siftDown(last);
+        }
+        return first;
+    }
+
+    /**
+     * Moves the last element down from the root, each time swapping it with the
+     * smallest of the children of its slot.
+     */
+    private void siftDown(int element) {
+        final int arity = 1 << shift;
+        int index = root, child;
+        while ((child = (index - root + 1) << shift) < end) {
+            final int last = Math.min(child + arity, end);
+            int min = child;
+            for (int c = child + 1; c < last; c++) {
+                if (heap[c] < heap[min]) {
+                    min = c;
+                }
+            }
+            if (heap[min] >= element) {
+                break;
+            }
+            heap[index] = heap[min];
+            index = min;
+        }
+        heap[index] = element;
+    }
+
+    /**
+     * Sorts an array in place with a d-ary max-heap in O(n log(n)).
+     *
+     * @param arr   array to be sorted
+     * @param arity number of children per node, a power of two
+     * @see HeapSort
+     */
+    public static void heapSort(int[] arr, int arity) {
+        HeapSort.sort(arr, 0, arr.length - 1, arity);
+    }
+
+    public static void main(String[] args) {
+        final int num = 10000000;
+        int[] arr = new int[num];
+        for (int i = 0; i < num; i++) {
+            arr[i] = (int) (Math.random() * Integer.MAX_VALUE);
+        }
+        long begin = System.currentTimeMillis();
+        heapSort(arr, 8);
+        long end = System.currentTimeMillis();
+        System.out.println("8-ary HeapSort: " + (end - begin));
+    }
+}
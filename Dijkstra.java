@@ -1,10 +1,12 @@
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.LinkedList;
 import java.util.Queue;
-import java.util.PriorityQueue;
+import java.util.Set;
 
 public class Dijkstra<E> {
     private static class Vertex<E> {
@@ -39,71 +41,137 @@ public class Dijkstra<E> {
 
     /**
      * Implements Dijkstra algorithm to find the shortest distance from a root to
-     * all Vertices. Uses a TreeMap for Vertex-Distance pairs because distance
-     * depends on each instance of a problem.
+     * all Vertices. Gives every reachable Vertex a dense id and lays out the graph
+     * as arrays, so the search itself runs on {@code shortestPaths} without maps
+     * or boxing.
      * 
      * @param root root from which we measure the distance
      * @return Map of shortest distances from the root to all Vertices
      */
     public Map<Vertex<E>, Integer> dijkstra(Vertex<E> root) {
 
-        // Initialize distances to all vertices as infinity, associates distance to each vertex
-        Map<Vertex<E>, Integer> distances = new HashMap<>();
-        for (Vertex<E> v : breadthFirstTraversal(root))
-            distances.put(v, INFINITY);
-        distances.put(root, 0);
-
-        // Define a function to compare vertices by their distances
-        Comparator<Vertex<E>> comparator = (x, y) -> {
-            return distances.get(x) - distances.get(y);
-        };
-
-        // Priority queue with custom comparator that orders vertices by distance
-        PriorityQueue<Vertex<E>> unvisited = new PriorityQueue<>(comparator);
-        for (Vertex<E> v : distances.keySet())
-            unvisited.add(v);
-        
+        // Assign ids in breadth first order, so the root is 0
+        List<Vertex<E>> vertices = breadthFirstTraversal(root);
+        Map<Vertex<E>, Integer> ids = new HashMap<>();
+        for (Vertex<E> v : vertices)
+            ids.put(v, ids.size());
+
+        // The edges of vertex i are at offsets[i] to offsets[i + 1] - 1
+        final int n = vertices.size();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++)
+            offsets[i + 1] = offsets[i] + vertices.get(i).neighbors.size();
+        int[] targets = new int[offsets[n]], weights = new int[offsets[n]];
+        for (int i = 0, edge = 0; i < n; i++) {
+            for (Next<E> e : vertices.get(i).neighbors) {
+                targets[edge] = ids.get(e.v);
+                weights[edge++] = e.weight;
+            }
+        }
+
         // Final map of distances
+        long[] distances = shortestPaths(offsets, targets, weights, 0);
         Map<Vertex<E>, Integer> visited = new HashMap<>();
+        for (int i = 0; i < n; i++)
+            visited.put(vertices.get(i), (int) Math.min(distances[i], INFINITY));
+        return visited;
+    }
 
-        // Iterate until all vertices are visited
+    /**
+     * Implements Dijkstra algorithm on a graph in compressed sparse row form: the
+     * vertices are the ids 0 to offsets.length - 2, and the edges leaving vertex v
+     * are the indices offsets[v] to offsets[v + 1] - 1 of targets and weights.
+     * Every vertex is in the {@link IndexedPriorityQueue} at most once, and a
+     * shorter distance lowers its key in place.
+     * 
+     * @param offsets start of the edges of each vertex, followed by the number of
+     *                edges
+     * @param targets vertex each edge leads to
+     * @param weights non-negative weight of each edge
+     * @param source  vertex from which we measure the distance
+     * @return shortest distance to every vertex, or Long.MAX_VALUE if unreachable
+     */
+    public static long[] shortestPaths(int[] offsets, int[] targets, int[] weights, int source) {
+        final int n = offsets.length - 1;
+        long[] distances = new long[n];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        distances[source] = 0;
+        IndexedPriorityQueue unvisited = new IndexedPriorityQueue(n);
+        unvisited.insert(source, 0);
+
+        // Iterate until every reachable vertex is visited
         while (!unvisited.isEmpty()) {
 
             // Get the vertex with the smallest distance
-            Vertex<E> min = unvisited.remove();
-
-            // Add it to the visited set
-            visited.put(min, distances.get(min));
+            final int min = unvisited.extractMin();
+            final long distance = distances[min];
 
             // Update distances to its neighbors
-            for (Next<E> e : min.neighbors) {
-
-                // Weight between min and neighbor
-                int weight = e.weight;
-
-                // Neighbor vertex
-                Vertex<E> v = e.v;
-
-                // Distance calculated by going through min
-                int sum = distances.get(min) + weight;
+            for (int edge = offsets[min]; edge < offsets[min + 1]; edge++) {
+                final int v = targets[edge];
+                final long sum = distance + weights[edge];
+                if (sum < distances[v]) {
+                    if (distances[v] == Long.MAX_VALUE) {
+                        unvisited.insert(v, sum);
+                    } else {
+                        unvisited.decreaseKey(v, sum);
+                    }
+                    distances[v] = sum;
+                }
+            }
+        }
+        return distances;
+    }
 
-                // Original distance recorded in distances map
-                int original = distances.get(v);
+    /**
+     * Same as {@code shortestPaths}, but on a {@link RadixHeap}, which only works
+     * because the distances Dijkstra removes never decrease. The radix heap has
+     * no decreaseKey, so a vertex is added again whenever its distance shrinks,
+     * and stale entries are skipped when they come out. Every entry costs
+     * O(log(C)) amortized, where C is the largest weight, instead of O(log(n)).
+     * 
+     * @param offsets start of the edges of each vertex, followed by the number of
+     *                edges
+     * @param targets vertex each edge leads to
+     * @param weights non-negative weight of each edge
+     * @param source  vertex from which we measure the distance
+     * @return shortest distance to every vertex, or Long.MAX_VALUE if unreachable
+     */
+    public static long[] radixShortestPaths(int[] offsets, int[] targets, int[] weights, int source) {
+        final int n = offsets.length - 1;
+        long[] distances = new long[n];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        distances[source] = 0;
+        RadixHeap unvisited = new RadixHeap();
+        unvisited.add(0, source);
+        while (!unvisited.isEmpty()) {
+            final long distance = unvisited.peekKey();
+            final int min = unvisited.remove();
 
-                // Update distance if the new calculated distance is smaller
-                distances.put(v, sum > original ? original : sum);
+            // Skip entries left behind by a shorter distance
+            if (distance > distances[min]) {
+                continue;
+            }
+            for (int edge = offsets[min]; edge < offsets[min + 1]; edge++) {
+                final int v = targets[edge];
+                final long sum = distance + weights[edge];
+                if (sum < distances[v]) {
+                    distances[v] = sum;
+                    unvisited.add(sum, v);
+                }
             }
         }
-        return visited;
+        return distances;
     }
 
     private List<Vertex<E>> breadthFirstTraversal(Vertex<E> start) {
-        List<Vertex<E>> visited = new LinkedList<>();
+        List<Vertex<E>> visited = new ArrayList<>();
+        Set<Vertex<E>> seen = new HashSet<>();
         Queue<Vertex<E>> q = new LinkedList<>();
         q.add(start);
         while (!q.isEmpty()) {
             Vertex<E> v = q.remove();
-            if (!visited.contains(v)) {
+            if (seen.add(v)) {
                 visited.add(v);
                 for (Next<E> e : v.neighbors)
                     q.add(e.v);
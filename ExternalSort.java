@@ -0,0 +1,292 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sorts files of 32-bit keys that are too large to fit on the heap. Every
+ * other sort in this repository ({@link QuickSort}, {@link MergeSort},
+ * {@link RadixSort}) needs the whole array in memory, so the file is sorted in
+ * two phases instead:
+ * <p>
+ * Split: the input is memory-mapped one fixed-size chunk at a time, each chunk
+ * is sorted in memory by {@link RadixSort} and spilled to a temporary run file.
+ * Chunks are sorted in parallel, one per worker thread.
+ * <p>
+ * Merge: the runs are merged by a k-way merge driven by a min-heap of the
+ * current head of each run, reading and writing through large NIO buffers. If
+ * there are more runs than the memory budget can buffer at once, groups of
+ * runs are merged into longer runs first.
+ * <p>
+ * The memory budget caps everything the sort allocates: the chunk arrays, the
+ * radix sort buffers and the I/O buffers.
+ *
+ * @version 1.0
+ * @see RadixSort
+ */
+public class ExternalSort {
+    public static final long DEFAULT_MEMORY_BUDGET = 256L << 20;
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+    private static final int MIN_MERGE_BUFFER_BYTES = 1 << 16;
+    private static final int MAX_MERGE_BUFFER_BYTES = 1 << 23;
+    private static final int MIN_CHUNK_INTS = 1 << 10;
+    private static final int MAX_CHUNK_INTS = 1 << 28;
+
+    private final long memoryBudget;
+    private final int threads;
+    private final Path tempDir;
+    private final ByteOrder order;
+
+    public ExternalSort() {
+        this(DEFAULT_MEMORY_BUDGET);
+    }
+
+    public ExternalSort(long memoryBudget) {
+        this(memoryBudget, Runtime.getRuntime().availableProcessors(),
+                Paths.get(System.getProperty("java.io.tmpdir")), ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Creates an external sort.
+     *
+     * @param memoryBudget maximum number of bytes used for arrays and buffers
+     * @param threads      number of chunks sorted at the same time
+     * @param tempDir      directory for the temporary run files
+     * @param order        byte order of the keys in the input and output files
+     */
+    public ExternalSort(long memoryBudget, int threads, Path tempDir, ByteOrder order) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required.");
+        }
+        if (memoryBudget / threads < IO_BUFFER_BYTES + 8L * MIN_CHUNK_INTS
+                || memoryBudget < 3L * MIN_MERGE_BUFFER_BYTES) {
+            throw new IllegalArgumentException("Memory budget too small: " + memoryBudget);
+        }
+        this.memoryBudget = memoryBudget;
+        this.threads = threads;
+        this.tempDir = tempDir;
+        this.order = order;
+    }
+
+    /**
+     * Sorts the keys of the input file into the output file. The input file is
+     * left untouched.
+     *
+     * @param input  file of 32-bit keys
+     * @param output file receiving the sorted keys
+     * @throws IOException if a file cannot be read or written
+     */
+    public void sort(Path input, Path output) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try {
+            split(input, runs);
+            final int fanIn = (int) Math.min(memoryBudget / MIN_MERGE_BUFFER_BYTES - 1, 1024);
+            while (runs.size() > fanIn) {
+                List<Path> group = new ArrayList<>(runs.subList(0, fanIn));
+                Path merged = Files.createTempFile(tempDir, "run", ".bin");
+                runs.add(merged);
+                merge(group, merged);
+                for (Path run : group) {
+                    Files.delete(run);
+                }
+                runs.subList(0, fanIn).clear();
+            }
+            merge(runs, output);
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Splits the input into sorted run files. Each task maps, sorts and spills one
+     * chunk; the fixed thread pool keeps at most {@code threads} chunks in memory.
+     */
+    private void split(Path input, List<Path> runs) throws IOException {
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            final long size = in.size();
+            if ((size & 3) != 0) {
+                throw new IOException(input + " is not a multiple of 4 bytes long.");
+            }
+            final long chunkInts = Math.min(MAX_CHUNK_INTS, (memoryBudget / threads - IO_BUFFER_BYTES) / 8);
+            final long chunkBytes = chunkInts << 2;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> tasks = new ArrayList<>();
+                for (long pos = 0; pos < size; pos += chunkBytes) {
+                    final long start = pos, length = Math.min(chunkBytes, size - pos);
+                    final Path run = Files.createTempFile(tempDir, "run", ".bin");
+                    runs.add(run);
+                    tasks.add(pool.submit(() -> {
+                        sortChunk(in, start, length, run);
+                        return null;
+                    }));
+                }
+                for (Future<?> task : tasks) {
+                    task.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while sorting runs.", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Failed to sort a run.", e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private void sortChunk(FileChannel in, long start, long length, Path run) throws IOException {
+        IntBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY, start, length).order(order).asIntBuffer();
+        int[] chunk = new int[mapped.remaining()];
+        mapped.get(chunk);
+        RadixSort.sort(chunk);
+        try (FileChannel out = FileChannel.open(run, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(order);
+            for (int e : chunk) {
+                if (!buffer.hasRemaining()) {
+                    drain(buffer, out);
+                }
+                buffer.putInt(e);
+            }
+            drain(buffer, out);
+        }
+    }
+
+    /**
+     * Merges sorted runs into the output. The heap holds run indices ordered by
+     * the current head of each run, so every key costs one sift of O(log(k)).
+     */
+    private void merge(List<Path> runs, Path output) throws IOException {
+        final int k = runs.size();
+        final int bufferBytes = (int) Math.max(MIN_MERGE_BUFFER_BYTES,
+                Math.min(MAX_MERGE_BUFFER_BYTES, memoryBudget / (k + 1))) & ~3;
+        RunReader[] readers = new RunReader[k];
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            final int[] heap = new int[k], heads = new int[k];
+            int size = 0;
+            for (int i = 0; i < k; i++) {
+                readers[i] = new RunReader(runs.get(i), bufferBytes, order);
+                if (readers[i].hasNext()) {
+                    heads[i] = readers[i].next();
+                    heap[size++] = i;
+                }
+            }
+            for (int i = (size >>> 1) - 1; i >= 0; i--) {
+                siftDown(heap, heads, i, size);
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferBytes).order(order);
+            while (size > 0) {
+                final int run = heap[0];
+                if (!buffer.hasRemaining()) {
+                    drain(buffer, out);
+                }
+                buffer.putInt(heads[run]);
+                if (readers[run].hasNext()) {
+                    heads[run] = readers[run].next();
+                } else {
+                    heap[0] = heap[--size];
+                }
+                siftDown(heap, heads, 0, size);
+            }
+            drain(buffer, out);
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    private static void siftDown(int[] heap, int[] heads, int index, int size) {
+        final int run = heap[index], head = heads[run];
+        int child;
+        while ((child = (index << 1) + 1) < size) {
+            if (child + 1 < size && heads[heap[child + 1]] < heads[heap[child]]) {
+                child++;
+            }
+            if (head <= heads[heap[child]]) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = run;
+    }
+
+    private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Buffered sequential reader over one run file.
+     */
+    private static final class RunReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        private RunReader(Path run, int bufferBytes, ByteOrder order) throws IOException {
+            channel = FileChannel.open(run, StandardOpenOption.READ);
+            buffer = ByteBuffer.allocateDirect(bufferBytes).order(order);
+            buffer.flip();
+        }
+
+        private boolean hasNext() throws IOException {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                    // keep filling until the buffer is full or the run ends
+                }
+                buffer.flip();
+            }
+            return buffer.hasRemaining();
+        }
+
+        private int next() {
+            return buffer.getInt();
+        }
+
+        private void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        final int num = 10000000;
+        Path input = Files.createTempFile("keys", ".bin"), output = Files.createTempFile("sorted", ".bin");
+        try (FileChannel out = FileChannel.open(input, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(num << 2);
+            for (int i = 0; i < num; i++) {
+                buffer.putInt((int) (Math.random() * Integer.MAX_VALUE));
+            }
+            drain(buffer, out);
+        }
+        long begin = System.currentTimeMillis();
+        new ExternalSort(16L << 20).sort(input, output);
+        long end = System.currentTimeMillis();
+        System.out.println("ExternalSort: " + (end - begin));
+        Files.delete(input);
+        Files.delete(output);
+    }
+}
@@ -0,0 +1,310 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Checks the claims made by {@link OrdersOfGrowth} by timing the annotated
+ * methods. As the annotation says, the only reliable comparison is of an
+ * algorithm against itself at different input sizes, so each method is timed
+ * at a series of growing sizes and the growth is fitted by least squares:
+ * <p>
+ * For polynomial orders (1, log(n), n, n log(n), n^k) the sizes double, and
+ * the slope of log(time) against log(n) is the observed exponent. Logarithmic
+ * factors add only a little to the slope and are absorbed by the tolerance.
+ * <p>
+ * For exponential orders (b^n) the sizes grow by one, and e to the slope of
+ * ln(time) against n is the observed base.
+ * <p>
+ * A method fails when its observed exponent (or base) exceeds the declared
+ * one by more than the tolerance, which makes the annotation usable as a
+ * performance regression gate: {@code main} exits with status 1 on failure.
+ * <p>
+ * Annotated methods must be static and take only {@code int}s. The first
+ * argument is the size n; any further arguments are n / 2, which gives the
+ * middle of Pascal's triangle for the (row, col) methods of
+ * {@link DynamicProgramming}. Each size is warmed up before it is timed, runs
+ * on a thread with a large stack so deep recursion is measured rather than
+ * overflowing, and has its output discarded. If a method still overflows the
+ * stack, the sizes stop growing and the fit uses the sizes measured so far;
+ * any other exception or error thrown while timing is rethrown to the caller.
+ * <p>
+ * Static maps and collections of the declaring class, such as the memo of
+ * {@code DynamicProgramming.topDownFib}, are cleared before every call, so a
+ * memoized method is timed computing its answer rather than looking it up. A
+ * method whose timings still stay flat although it declares growth is kept
+ * state some other way; it is reported as skipped rather than passed.
+ *
+ * @version 1.1
+ * @see OrdersOfGrowth
+ */
+public final class GrowthVerifier {
+    public static final double DEFAULT_TOLERANCE = 0.35;
+    private static final long TARGET_NANOS = 50_000_000L;
+    private static final long MIN_SAMPLE_NANOS = 2_000_000L;
+    private static final int POINTS_FITTED = 5;
+    private static final int MAX_POINTS = 24;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+    private static final long STACK_SIZE = 1L << 28;
+    private static volatile long sink;
+
+    private final double tolerance;
+
+    public GrowthVerifier() {
+        this(DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param tolerance how far the observed exponent may exceed the declared one,
+     *                  or the relative amount the observed base may exceed the
+     *                  declared base
+     */
+    public GrowthVerifier(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Times every annotated method of a class and prints one line per method.
+     *
+     * @param type class whose methods are checked
+     * @return true if every method grows no faster than it declares
+     */
+    public boolean verify(Class<?> type) {
+        boolean passed = true;
+        for (Method method : type.getDeclaredMethods()) {
+            OrdersOfGrowth annotation = method.getAnnotation(OrdersOfGrowth.class);
+            if (annotation != null) {
+                passed &= verify(method, annotation.value());
+            }
+        }
+        return passed;
+    }
+
+    private boolean verify(Method method, String order) {
+        final String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        final String compact = order.replaceAll("\\s", "").toLowerCase(Locale.ROOT);
+        final int caret = compact.indexOf("^n");
+        final boolean exponential = caret > 0;
+        final double declared = exponential
+                ? Double.parseDouble(compact.substring(0, caret))
+                : polynomialExponent(compact);
+        final double observed = exponential ? observedBase(method) : observedExponent(method);
+        final boolean flat = exponential
+                ? observed < 1 + tolerance && declared >= 1 + tolerance
+                : observed < tolerance && declared >= tolerance;
+        if (flat) {
+            System.out.printf(Locale.ROOT, "SKIP %s: declared O(%s), but the timings are flat (observed %s%.2f);"
+                    + " does it keep state between calls?%n", name, order, exponential ? "base " : "exponent ",
+                    observed);
+            return true;
+        }
+        final boolean passed = exponential
+                ? observed <= declared * (1 + tolerance)
+                : observed <= declared + tolerance;
+        System.out.printf(Locale.ROOT, "%s %s: declared O(%s), observed %s%.2f%n", passed ? "PASS" : "FAIL",
+                name, order, exponential ? "base " : "exponent ", observed);
+        return passed;
+    }
+
+    /**
+     * Parses 1, log(n), n, n log(n) and n^k into the exponent of n.
+     */
+    private static double polynomialExponent(String order) {
+        if (order.equals("1") || order.startsWith("log")) {
+            return 0;
+        }
+        if (order.startsWith("n^")) {
+            return Double.parseDouble(order.substring(2));
+        }
+        if (order.startsWith("n")) {
+            return 1;
+        }
+        throw new IllegalArgumentException("Unsupported order of growth: " + order);
+    }
+
+    private static double observedExponent(Method method) {
+        double[] x = new double[MAX_POINTS], y = new double[MAX_POINTS];
+        int points = 0;
+        for (int n = 16; points < MAX_POINTS && n > 0; n <<= 1) {
+            final double nanos = time(method, n);
+            if (Double.isNaN(nanos)) {
+                break;
+            }
+            x[points] = Math.log(n);
+            y[points] = Math.log(nanos);
+            points++;
+            if (nanos > TARGET_NANOS) {
+                break;
+            }
+        }
+        return slope(x, y, points);
+    }
+
+    private static double observedBase(Method method) {
+        double[] x = new double[MAX_POINTS], y = new double[MAX_POINTS];
+        int points = 0;
+        for (int n = 8; points < MAX_POINTS; n++) {
+            final double nanos = time(method, n);
+            if (Double.isNaN(nanos)) {
+                break;
+            }
+            x[points] = n;
+            y[points] = Math.log(nanos);
+            points++;
+            if (nanos > TARGET_NANOS) {
+                break;
+            }
+        }
+        return Math.exp(slope(x, y, points));
+    }
+
+    /**
+     * Least squares slope over the last POINTS_FITTED points, where fixed costs
+     * matter least.
+     */
+    private static double slope(double[] x, double[] y, int points) {
+        final int from = Math.max(0, points - POINTS_FITTED), count = points - from;
+        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+        for (int i = from; i < points; i++) {
+            sumX += x[i];
+            sumY += y[i];
+            sumXY += x[i] * y[i];
+            sumXX += x[i] * x[i];
+        }
+        return (count * sumXY - sumX * sumY) / (count * sumXX - sumX * sumX);
+    }
+
+    /**
+     * Returns the median time of one call at size n, in nanoseconds, or NaN if
+     * the call overflows the stack. Calls that are too quick to time are
+     * repeated in batches.
+     */
+    private static double time(Method method, int n) {
+        final Object[] args = new Object[method.getParameterCount()];
+        args[0] = n;
+        for (int i = 1; i < args.length; i++) {
+            args[i] = n / 2;
+        }
+        final Object[] state = staticState(method.getDeclaringClass());
+        final double[] samples = new double[MEASURED_RUNS];
+        final Throwable[] failure = new Throwable[1];
+        final boolean[] overflowed = new boolean[1];
+        Thread worker = new Thread(null, () -> {
+            PrintStream out = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            try {
+                for (int i = 0; i < WARMUP_RUNS; i++) {
+                    invoke(method, args, state);
+                }
+                int batch = 1;
+                for (int i = 0; i < MEASURED_RUNS; i++) {
+                    long elapsed;
+                    while (true) {
+                        long begin = System.nanoTime();
+                        for (int j = 0; j < batch; j++) {
+                            invoke(method, args, state);
+                        }
+                        elapsed = System.nanoTime() - begin;
+                        if (elapsed >= MIN_SAMPLE_NANOS || batch >= 1 << 20) {
+                            break;
+                        }
+                        batch <<= 1;
+                    }
+                    samples[i] = (double) elapsed / batch;
+                }
+            } catch (StackOverflowError e) {
+                overflowed[0] = true;
+            } catch (Throwable e) {
+                failure[0] = e;
+            } finally {
+                System.setOut(out);
+            }
+        }, "growth-verifier", STACK_SIZE);
+        worker.start();
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while timing " + method.getName(), e);
+        }
+        if (failure[0] instanceof RuntimeException) {
+            throw (RuntimeException) failure[0];
+        }
+        if (failure[0] instanceof Error) {
+            throw (Error) failure[0];
+        }
+        if (failure[0] != null) {
+            throw new IllegalStateException("Failed timing " + method.getName(), failure[0]);
+        }
+        if (overflowed[0]) {
+            return Double.NaN;
+        }
+        Arrays.sort(samples);
+        return Math.max(samples[MEASURED_RUNS / 2], 1);
+    }
+
+    /**
+     * Returns the static maps and collections of a class, which may hold results
+     * of earlier calls.
+     */
+    private static Object[] staticState(Class<?> type) {
+        List<Object> state = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())
+                    && (Map.class.isAssignableFrom(field.getType())
+                            || Collection.class.isAssignableFrom(field.getType()))) {
+                try {
+                    field.setAccessible(true);
+                    state.add(field.get(null));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        return state.toArray();
+    }
+
+    private static void invoke(Method method, Object[] args, Object[] state) {
+        for (Object memo : state) {
+            if (memo instanceof Map) {
+                ((Map<?, ?>) memo).clear();
+            } else if (memo instanceof Collection) {
+                ((Collection<?>) memo).clear();
+            }
+        }
+        try {
+            Object result = method.invoke(null, args);
+            sink += result == null ? 0 : result.hashCode();
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof StackOverflowError) {
+                throw (StackOverflowError) e.getCause();
+            }
+            throw new IllegalStateException(method.getName() + " failed", e.getCause());
+        }
+    }
+
+    public static void main(String[] args) throws ClassNotFoundException {
+        GrowthVerifier verifier = new GrowthVerifier();
+        boolean passed = true;
+        if (args.length == 0) {
+            passed = verifier.verify(DynamicProgramming.class);
+        }
+        for (String name : args) {
+            passed &= verifier.verify(Class.forName(name));
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+}
@@ -1,4 +1,5 @@
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.NoSuchElementException;
 
@@ -17,11 +18,23 @@ import java.util.NoSuchElementException;
  * Find left node: (i << 1) + 1 where i is the index.
  * <p>
  * Find right node: (i << 1) + 2 where i is the index.
+ * <p>
+ * Adding an element sifts it up from the end, and removing the first element
+ * moves the last element to the front and sifts it down, so both take
+ * O(log(n)). A heap built from an array sifts down every parent from the last
+ * one to the root, which takes O(n) rather than the O(n log(n)) of adding the
+ * elements one by one.
+ * <p>
+ * Numbers of different types are compared by value, without truncating longs
+ * or doubles. {@link IntHeap}, {@link LongHeap} and {@link DoubleHeap} store
+ * primitives without boxing, and {@link LongIntHeap} orders {@code int}
+ * payloads by {@code long} keys.
  * 
  * @author Anwen Hao
- * @version 1.2
+ * @version 1.3
  * @since 1.0
  * @see SearchTree
+ * @see IntHeap
  */
 @SuppressWarnings("unchecked")
 public class Heap<E extends Number> {
@@ -29,12 +42,8 @@ public class Heap<E extends Number> {
     private volatile transient int size;
     private final Comparator<? super E> comparator;
     private static final int DEFAULT_INITIAL_CAPACITY = 10;
-    private static final Comparator<Number> MAX_HEAP = (x, y) -> {
-        return (int) y - (int) x;
-    };
-    private static final Comparator<Number> MIN_HEAP = (x, y) -> {
-        return (int) x - (int) y;
-    };
+    private static final Comparator<Number> MAX_HEAP = (x, y) -> compare(y, x);
+    private static final Comparator<Number> MIN_HEAP = Heap::compare;
 
     public Heap() {
         this(DEFAULT_INITIAL_CAPACITY, MAX_HEAP);
@@ -45,10 +54,24 @@ public class Heap<E extends Number> {
     }
 
     public Heap(int size, Comparator<? super E> comparator) {
-        heap = new Object[size];
+        heap = new Object[Math.max(size, 1)];
         this.comparator = comparator;
     }
 
+    /**
+     * Builds a heap from the elements of an array in O(n). The array itself is
+     * not modified.
+     * 
+     * @param elements   elements of the heap
+     * @param comparator order of the heap; the first element is the smallest
+     */
+    public Heap(E[] elements, Comparator<? super E> comparator) {
+        this(elements.length, comparator);
+        System.arraycopy(elements, 0, heap, 0, elements.length);
+        size = elements.length;
+        buildHeap();
+    }
+
     public int size() {
         return size;
     }
@@ -58,25 +81,53 @@ public class Heap<E extends Number> {
     }
 
     /**
-     * Recursively builds heap from bottom up. Starts with children and builds until
-     * parent.
+     * Restores the heap contract on the whole array by sifting down every parent,
+     * from the last one to the root.
+     */
+    private void buildHeap() {
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            heapify(i, size - 1, heap);
+        }
+    }
+
+    /**
+     * Sifts an element down until it is no larger/smaller than its parent,
+     * considering only the elements from the root to end. Both children of the
+     * element must already be heaps.
      * 
-     * @param heap  random array
-     * @param index index at which to start
-     * @return heap
+     * @param index index of the element to sift down
+     * @param end   index of the last element of the heap
+     * @param heap  array holding the heap
      */
     protected void heapify(int index, int end, Object[] heap) {
-        if (index > end) {
-            return;
+        final E element = (E) heap[index];
+        int child;
+        while ((child = (index << 1) + 1) <= end) {
+            if (child < end && comparator.compare((E) heap[child + 1], (E) heap[child]) < 0) {
+                child++;
+            }
+            if (comparator.compare(element, (E) heap[child]) <= 0) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
         }
-        if (index > 0 && comparator.compare((E) heap[index], (E) heap[(index - 1) >>> 1]) < 0) {
-            Object temp = heap[index];
-            heap[index] = heap[(index - 1) >>> 1];
-            heap[(index - 1) >>> 1] = temp;
-            heapify((index - 1) >>> 1, end, heap);
-        } else {
-            heapify(index + 1, end, heap);
+        heap[index] = element;
+    }
+
+    /**
+     * Sifts an element up until its parent is no larger/smaller.
+     */
+    private void siftUp(int index, E element) {
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (comparator.compare(element, (E) heap[parent]) >= 0) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
         }
+        heap[index] = element;
     }
 
     /**
@@ -95,52 +146,64 @@ public class Heap<E extends Number> {
      * Adds an element to the heap. Maintains heap contract.
      * 
      * @param element element to be added
-     * @return new array with added element
      */
     public void add(E element) {
         if (size == heap.length) {
             morph(heap.length << 1);
         }
-        heap[size] = element;
-        size++;
-        heapify(0, size-1, heap);
+        siftUp(size++, element);
     }
 
+    /**
+     * Removes the first element of the heap. Maintains heap contract.
+     * 
+     * @return largest/smallest element of heap
+     */
     public E remove() {
-        E temp = (E) heap[0];
-        for (int i = 0; i < size; i++) {
-            heap[i] = heap[i + 1];
+        final E first = peek();
+        final int last = --size;
+        heap[0] = heap[last];
+        heap[last] = null;
+        if (last > 0) {
+            heapify(0, last - 1, heap);
         }
-        size--;
-        heapify(0, size-1, heap);
-        return temp;
+        return first;
     }
 
     private void morph(int newLength) {
-        Object[] copy = new Object[newLength];
-        for (int i = 0; i < heap.length && i < copy.length; i++) {
-            copy[i] = heap[i];
-        }
-        heap = copy;
+        heap = Arrays.copyOf(heap, newLength);
     }
 
     public Heap<E> clone() {
-        Heap<E> copy = new Heap<>(size, comparator);
-        for (Object e : heap) {
-            copy.add((E) e);
-        }
+        Heap<E> copy = new Heap<>(heap.length, comparator);
+        System.arraycopy(heap, 0, copy.heap, 0, size);
+        copy.size = size;
         return copy;
     }
 
+    /**
+     * Compares numbers by value. Integral types are compared as longs, so large
+     * longs keep their precision; anything else is compared as a double.
+     */
+    private static int compare(Number x, Number y) {
+        if (isIntegral(x) && isIntegral(y)) {
+            return Long.compare(x.longValue(), y.longValue());
+        }
+        return Double.compare(x.doubleValue(), y.doubleValue());
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte;
+    }
+
     /**
      * Returns String value for heap.
      */
     @Override
     public String toString() {
         String str = "";
-        for (Object e : heap) {
-            if (e != null)
-                str += e + " ";
+        for (int i = 0; i < size; i++) {
+            str += heap[i] + " ";
         }
         return str;
     }
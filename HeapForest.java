@@ -1,93 +1,353 @@
-import java.util.List;
-import java.util.LinkedList;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
 import java.util.PriorityQueue;
 
 /**
- * Implements Fibonacci Heap. Structure involves a {@link java.util.LinkedList}
- * of {@link java.util.PriorityQueue}. Efficient at merging heaps because it can
- * simply concatenate the heads. Includes basic capabilities like adding,
- * merging, and peeking.
- * 
+ * Implements Fibonacci Heap. The heap is a forest of heap-ordered trees whose
+ * roots form a circular doubly linked list, and the heap keeps a pointer to
+ * the smallest root:
+ * <p>
+ * Adding an element and merging two heaps only splice root lists together,
+ * so both take O(1).
+ * <p>
+ * Extracting the minimum moves the children of the minimum up to the root
+ * list and then consolidates: roots of equal degree (number of children) are
+ * linked until every degree appears once, which takes amortized O(log(n)).
+ * <p>
+ * Decreasing an element cuts it from its parent if it breaks heap order. A
+ * parent that loses a second child is cut too (a cascading cut), which keeps
+ * the trees wide and makes decreasing amortized O(1).
+ * <p>
+ * {@code add} returns a {@link Node} handle for the element, which is what
+ * {@code decreaseKey} and {@code delete} take. A handle must not be used after
+ * its element has left the heap.
+ *
  * @author Anwen Hao
- * @version 1.0
- * @see java.util.List
- * @see java.util.PriorityQueue
+ * @version 2.0
+ * @see Heap
  * @param <G> type of the element in Fibonacci Heap
  */
 public class HeapForest<G> {
-    private List<PriorityQueue<G>> heaps; // list of heaps
-    private transient int modCount; // number of structural modifications
+    private static final int MAX_DEGREE = 46; // log base golden ratio of 2^31
+    private final Comparator<? super G> comparator;
+    private final Node<G>[] degrees;
+    private Node<G> min; // smallest root
+    private int size;
 
     /**
-     * Creates empty Fibonacci Heap.
+     * Handle to an element in the heap.
+     *
+     * @param <G> type of the element
      */
+    public static final class Node<G> {
+        private G element;
+        private Node<G> parent, child, left, right;
+        private int degree;
+        private boolean marked; // lost a child since it became a child itself
+
+        private Node(G element) {
+            this.element = element;
+            left = right = this;
+        }
+
+        public G getElement() {
+            return element;
+        }
+    }
+
+    /**
+     * Creates empty Fibonacci Heap ordered by the natural order of its elements.
+     */
+    @SuppressWarnings("unchecked")
     public HeapForest() {
-        modCount = 0;
-        heaps = new LinkedList<>();
+        this((x, y) -> ((Comparable<? super G>) x).compareTo(y));
     }
 
     /**
-     * Merges heap into LinkedList.
-     * 
-     * @param heap added heap
+     * Creates empty Fibonacci Heap.
+     *
+     * @param comparator order of the heap; the minimum is the smallest element
      */
-    public void merge(PriorityQueue<G> heap) {
-        heaps.add(heap);
-        modCount++;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public HeapForest(Comparator<? super G> comparator) {
+        this.comparator = comparator;
+        degrees = new Node[MAX_DEGREE];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
     }
 
     /**
-     * Inserts an element to the Fibonacci Heap. Functions by creating a heap with
-     * that element only and merging it into the Fibonacci Heap.
-     * 
+     * Inserts an element to the Fibonacci Heap as a new single-node tree.
+     *
      * @param e added element
+     * @return handle to the element
      */
-    public void add(G e) {
-        PriorityQueue<G> heap = new PriorityQueue<>();
-        heap.add(e);
-        merge(heap);
-        modCount++;
+    public Node<G> add(G e) {
+        Node<G> node = new Node<>(e);
+        min = meld(min, node);
+        size++;
+        return node;
     }
 
     /**
-     * Extracts minimum element in the forest. Functions by first adding heaps with
-     * the same degree, which means the number of elements. Then it compares those
-     * roots together for the minimum value.
-     * 
+     * Moves every element of another heap into this one by splicing the two root
+     * lists. The other heap is left empty. Both heaps must use the same order.
+     *
+     * @param other heap to be merged
+     */
+    public void merge(HeapForest<G> other) {
+        if (other == this) {
+            return;
+        }
+        min = meld(min, other.min);
+        size += other.size;
+        other.min = null;
+        other.size = 0;
+    }
+
+    /**
+     * Adds every element of a {@link PriorityQueue}. The queue is not modified.
+     *
+     * @param heap added heap
+     */
+    public void merge(PriorityQueue<G> heap) {
+        for (G e : heap) {
+            add(e);
+        }
+    }
+
+    /**
+     * Returns the minimum element in the forest.
+     *
      * @return minimum value
      */
     public G peek() {
-        for (int i = 0; i < heaps.size(); i++) {
-            int deg = heaps.get(i).size();
-            for (int j = i + 1; j < heaps.size(); j++) {
-                if (deg == heaps.get(j).size()) {
-                    heaps.get(i).addAll(heaps.get(j));
+        if (min == null) {
+            throw new NoSuchElementException("Empty heap.");
+        }
+        return min.element;
+    }
+
+    /**
+     * Removes the minimum element. Its children become roots, and then roots of
+     * the same degree are linked until all degrees differ.
+     *
+     * @return minimum value
+     */
+    public G extractMin() {
+        final Node<G> z = min;
+        if (z == null) {
+            throw new NoSuchElementException("Empty heap.");
+        }
+        Node<G> child = z.child;
+        if (child != null) {
+            Node<G> c = child;
+            do {
+                c.parent = null;
+                c.marked = false;
+                c = c.right;
+            } while (c != child);
+        }
+        Node<G> rest = z.right == z ? null : z.right;
+        unlink(z);
+        min = meld(rest, child);
+        if (min != null) {
+            consolidate();
+        }
+        size--;
+        final G element = z.element;
+        z.child = null;
+        z.left = z.right = null;
+        return element;
+    }
+
+    /**
+     * Replaces an element with a smaller or equal one. If the node is now smaller
+     * than its parent, it is cut into the root list, and so is every ancestor
+     * that had already lost a child.
+     *
+     * @param node    handle to the element
+     * @param element new element, no larger than the current one
+     */
+    public void decreaseKey(Node<G> node, G element) {
+        checkInHeap(node);
+        if (comparator.compare(element, node.element) > 0) {
+            throw new IllegalArgumentException("New element is larger than " + node.element);
+        }
+        node.element = element;
+        final Node<G> parent = node.parent;
+        if (parent != null && comparator.compare(element, parent.element) < 0) {
+            cut(node, parent);
+            cascadingCut(parent);
+        }
+        if (comparator.compare(element, min.element) < 0) {
+            min = node;
+        }
+    }
+
+    /**
+     * Removes an element by cutting it into the root list, treating it as the
+     * minimum, and extracting it.
+     *
+     * @param node handle to the element
+     * @return the removed element
+     */
+    public G delete(Node<G> node) {
+        checkInHeap(node);
+        final Node<G> parent = node.parent;
+        if (parent != null) {
+            cut(node, parent);
+            cascadingCut(parent);
+        }
+        min = node;
+        return extractMin();
+    }
+
+    private void checkInHeap(Node<G> node) {
+        if (node.left == null) {
+            throw new IllegalArgumentException("Node is no longer in the heap.");
+        }
+    }
+
+    /**
+     * Links roots of equal degree, smaller root on top, until every degree
+     * appears once, then finds the new minimum.
+     */
+    private void consolidate() {
+        Node<G> w = min;
+        int roots = 0;
+        do {
+            roots++;
+            w = w.right;
+        } while (w != min);
+        for (int i = 0; i < roots; i++) {
+            Node<G> x = w;
+            w = w.right;
+            int d = x.degree;
+            while (degrees[d] != null) {
+                Node<G> y = degrees[d];
+                if (comparator.compare(y.element, x.element) < 0) {
+                    Node<G> temp = x;
+                    x = y;
+                    y = temp;
+                }
+                link(y, x);
+                degrees[d++] = null;
+            }
+            degrees[d] = x;
+        }
+        min = null;
+        for (int d = 0; d < MAX_DEGREE; d++) {
+            final Node<G> root = degrees[d];
+            if (root != null) {
+                if (min == null || comparator.compare(root.element, min.element) < 0) {
+                    min = root;
                 }
+                degrees[d] = null;
             }
         }
-        G min = heaps.get(0).peek();
-        for (int i = 1; i < heaps.size(); i++) {
-            if ((int) min > (int) heaps.get(i).peek()) {
-                min = heaps.get(i).peek();
+    }
+
+    /**
+     * Makes root y a child of root x.
+     */
+    private void link(Node<G> y, Node<G> x) {
+        unlink(y);
+        y.parent = x;
+        y.marked = false;
+        x.child = meld(x.child, y);
+        x.degree++;
+    }
+
+    /**
+     * Moves a child to the root list.
+     */
+    private void cut(Node<G> node, Node<G> parent) {
+        if (node.right == node) {
+            parent.child = null;
+        } else if (parent.child == node) {
+            parent.child = node.right;
+        }
+        unlink(node);
+        parent.degree--;
+        node.parent = null;
+        node.marked = false;
+        min = meld(min, node);
+    }
+
+    private void cascadingCut(Node<G> node) {
+        for (Node<G> parent = node.parent; parent != null; node = parent, parent = node.parent) {
+            if (!node.marked) {
+                node.marked = true;
+                return;
             }
+            cut(node, parent);
         }
-        return min;
     }
 
     /**
-     * Returns String value for Fibonacci Heap.
+     * Removes a node from its circular list, leaving it a list of its own.
+     */
+    private static <G> void unlink(Node<G> node) {
+        node.left.right = node.right;
+        node.right.left = node.left;
+        node.left = node.right = node;
+    }
+
+    /**
+     * Splices two circular lists together.
+     *
+     * @return the smaller of the two heads, or whichever is not null
+     */
+    private Node<G> meld(Node<G> a, Node<G> b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        final Node<G> aRight = a.right, bLeft = b.left;
+        a.right = b;
+        b.left = a;
+        aRight.left = bLeft;
+        bLeft.right = aRight;
+        return comparator.compare(b.element, a.element) < 0 ? b : a;
+    }
+
+    /**
+     * Returns String value for Fibonacci Heap, one tree per line.
      */
     @Override
     public String toString() {
+        if (min == null) {
+            return "";
+        }
         int index = 1;
         String str = "";
-        for (PriorityQueue<G> e : heaps) {
-            str += "Heap " + index + ":\t";
-            for (G i : e) {
-                str += i + " ";
-            }
+        Node<G> root = min;
+        do {
+            str += "Heap " + index + ":\t" + treeString(root) + "\n";
             index++;
-            str += "\n";
+            root = root.right;
+        } while (root != min);
+        return str;
+    }
+
+    private String treeString(Node<G> root) {
+        String str = root.element + " ";
+        Node<G> child = root.child;
+        if (child != null) {
+            Node<G> c = child;
+            do {
+                str += treeString(c);
+                c = c.right;
+            } while (c != child);
         }
         return str;
     }
@@ -111,6 +371,7 @@ public class HeapForest<G> {
         h.merge(q1);
         h.merge(q2);
         h.merge(q3);
+        System.out.println(h.extractMin());
         System.out.print(h);
         System.out.print(h.peek());
     }
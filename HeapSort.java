@@ -1,18 +1,263 @@
+/**
+ * HeapSort: builds a max-heap, then swaps its root to the end of the range and
+ * restores the heap, n times. It takes O(n log(n)) in the worst case and no
+ * extra memory, which makes it the fallback of {@link IntroSort}.
+ * <p>
+ * The static sorts for {@code int[]}, {@code long[]} and {@code double[]}
+ * build the heap in O(n) with Floyd's method, sifting down every parent from
+ * the last one to the root. Every sift down is bottom-up: the hole left by the
+ * root first follows the larger children all the way to a leaf, and the
+ * element then climbs back up to its place. The element almost always belongs
+ * near the leaves, so this saves the comparison with the element at every
+ * level, about half of all comparisons.
+ * <p>
+ * An arity of 4 or 8 instead of 2 makes the heap shallower and keeps each
+ * node's children together in memory (see {@link DaryHeap}). Doubles are
+ * ordered as in {@link Double#compare}.
+ *
+ * @version 2.0
+ * @see Heap
+ * @see DaryHeap
+ * @see IntroSort
+ */
 public class HeapSort<G extends Number> extends Heap<G> {
     public static final int MAX_SIZE = 90;
     public G[] sort(G[] arr) {
         Sortable<G> s = (end, array) -> {
+            for (int i = (end - 1) >>> 1; end > 0 && i >= 0; i--) {
+                heapify(i, end, array);
+            }
             while (end > 0) {
-                heapify(0, end, array);
                 G temp = array[end];
                 array[end] = array[0];
                 array[0] = temp;
                 end--;
+                heapify(0, end, array);
             }
             return array;
         };
         return s.sort(arr.length-1, arr);
     }
+    /**
+     * Sorts a given array in place.
+     *
+     * @param arr array to be sorted
+     */
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length - 1, 2);
+    }
+
+    /**
+     * Sorts a given range of an array in place with a binary heap.
+     *
+     * @param arr   array to be sorted
+     * @param start lower index of the range
+     * @param end   higher index of the range, inclusive
+     */
+    public static void sort(int[] arr, int start, int end) {
+        sort(arr, start, end, 2);
+    }
+
+    /**
+     * Sorts a given range of an array in place with a heap of the given arity.
+     *
+     * @param arr   array to be sorted
+     * @param start lower index of the range
+     * @param end   higher index of the range, inclusive
+     * @param arity number of children per node, a power of two such as 2, 4 or 8
+     */
+    public static void sort(int[] arr, int start, int end, int arity) {
+        final int shift = shift(arity);
+        final int n = end - start + 1;
+        for (int i = (n - 2) >> shift; n > 1 && i >= 0; i--) {
+            siftDown(arr, start, i, n, shift);
+        }
+        for (int size = n - 1; size > 0; size--) {
+            final int max = arr[start];
+            arr[start] = arr[start + size];
+            arr[start + size] = max;
+            siftDown(arr, start, 0, size, shift);
+        }
+    }
+
+    /**
+     * Bottom-up sift down of arr[base + index] within a heap of the given size.
+     */
+    private static void siftDown(int[] arr, int base, int index, int size, int shift) {
+        final int e = arr[base + index];
+        final int lastParent = (size - 2) >> shift;
+        int hole = index;
+        while (size > 1 && hole <= lastParent) {
+            final int child = (hole << shift) + 1, last = Math.min(child + (1 << shift), size);
+            int max = child;
+            for (int c = child + 1; c < last; c++) {
+                if (arr[base + c] > arr[base + max]) {
+                    max = c;
+                }
+            }
+            arr[base + hole] = arr[base + max];
+            hole = max;
+        }
+        while (hole > index) {
+            final int parent = (hole - 1) >> shift;
+            if (!(arr[base + parent] < e)) {
+                break;
+            }
+            arr[base + hole] = arr[base + parent];
+            hole = parent;
+        }
+        arr[base + hole] = e;
+    }
+
+    /**
+     * Sorts a given array in place.
+     *
+     * @param arr array to be sorted
+     */
+    public static void sort(long[] arr) {
+        sort(arr, 0, arr.length - 1, 2);
+    }
+
+    /**
+     * Sorts a given range of an array in place with a binary heap.
+     *
+     * @param arr   array to be sorted
+     * @param start lower index of the range
+     * @param end   higher index of the range, inclusive
+     */
+    public static void sort(long[] arr, int start, int end) {
+        sort(arr, start, end, 2);
+    }
+
+    /**
+     * Sorts a given range of an array in place with a heap of the given arity.
+     *
+     * @param arr   array to be sorted
+     * @param start lower index of the range
+     * @param end   higher index of the range, inclusive
+     * @param arity number of children per node, a power of two such as 2, 4 or 8
+     */
+    public static void sort(long[] arr, int start, int end, int arity) {
+        final int shift = shift(arity);
+        final int n = end - start + 1;
+        for (int i = (n - 2) >> shift; n > 1 && i >= 0; i--) {
+            siftDown(arr, start, i, n, shift);
+        }
+        for (int size = n - 1; size > 0; size--) {
+            final long max = arr[start];
+            arr[start] = arr[start + size];
+            arr[start + size] = max;
+            siftDown(arr, start, 0, size, shift);
+        }
+    }
+
+    /**
+     * Bottom-up sift down of arr[base + index] within a heap of the given size.
+     */
+    private static void siftDown(long[] arr, int base, int index, int size, int shift) {
+        final long e = arr[base + index];
+        final int lastParent = (size - 2) >> shift;
+        int hole = index;
+        while (size > 1 && hole <= lastParent) {
+            final int child = (hole << shift) + 1, last = Math.min(child + (1 << shift), size);
+            int max = child;
+            for (int c = child + 1; c < last; c++) {
+                if (arr[base + c] > arr[base + max]) {
+                    max = c;
+                }
+            }
+            arr[base + hole] = arr[base + max];
+            hole = max;
+        }
+        while (hole > index) {
+            final int parent = (hole - 1) >> shift;
+            if (!(arr[base + parent] < e)) {
+                break;
+            }
+            arr[base + hole] = arr[base + parent];
+            hole = parent;
+        }
+        arr[base + hole] = e;
+    }
+
+    /**
+     * Sorts a given array in place.
+     *
+     * @param arr array to be sorted
+     */
+    public static void sort(double[] arr) {
+        sort(arr, 0, arr.length - 1, 2);
+    }
+
+    /**
+     * Sorts a given range of an array in place with a binary heap.
+     *
+     * @param arr   array to be sorted
+     * @param start lower index of the range
+     * @param end   higher index of the range, inclusive
+     */
+    public static void sort(double[] arr, int start, int end) {
+        sort(arr, start, end, 2);
+    }
+
+    /**
+     * Sorts a given range of an array in place with a heap of the given arity.
+     *
+     * @param arr   array to be sorted
+     * @param start lower index of the range
+     * @param end   higher index of the range, inclusive
+     * @param arity number of children per node, a power of two such as 2, 4 or 8
+     */
+    public static void sort(double[] arr, int start, int end, int arity) {
+        final int shift = shift(arity);
+        final int n = end - start + 1;
+        for (int i = (n - 2) >> shift; n > 1 && i >= 0; i--) {
+            siftDown(arr, start, i, n, shift);
+        }
+        for (int size = n - 1; size > 0; size--) {
+            final double max = arr[start];
+            arr[start] = arr[start + size];
+            arr[start + size] = max;
+            siftDown(arr, start, 0, size, shift);
+        }
+    }
+
+    /**
+     * Bottom-up sift down of arr[base + index] within a heap of the given size.
+     */
+    private static void siftDown(double[] arr, int base, int index, int size, int shift) {
+        final double e = arr[base + index];
+        final int lastParent = (size - 2) >> shift;
+        int hole = index;
+        while (size > 1 && hole <= lastParent) {
+            final int child = (hole << shift) + 1, last = Math.min(child + (1 << shift), size);
+            int max = child;
+            for (int c = child + 1; c < last; c++) {
+                if (Double.compare(arr[base + c], arr[base + max]) > 0) {
+                    max = c;
+                }
+            }
+            arr[base + hole] = arr[base + max];
+            hole = max;
+        }
+        while (hole > index) {
+            final int parent = (hole - 1) >> shift;
+            if (!(Double.compare(arr[base + parent], e) < 0)) {
+                break;
+            }
+            arr[base + hole] = arr[base + parent];
+            hole = parent;
+        }
+        arr[base + hole] = e;
+    }
+
+    private static int shift(int arity) {
+        if (arity < 2 || Integer.bitCount(arity) != 1) {
+            throw new IllegalArgumentException("Arity must be a power of two: " + arity);
+        }
+        return Integer.numberOfTrailingZeros(arity);
+    }
+
     public static void main(String[] args) {
         // HeapSort<Integer> h = new HeapSort<>();
         final int MAX_SIZE = 100;
@@ -0,0 +1,172 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min-priority queue of dense {@code int} ids from 0 to capacity - 1, each
+ * with a {@code long} key. Unlike {@link java.util.PriorityQueue}, the queue
+ * knows where every id sits in its heap, so the key of an id already in the
+ * queue can be lowered in place. Graph searches such as {@link Dijkstra} and
+ * {@link AStar} then hold every vertex at most once instead of adding a new
+ * entry for every relaxation.
+ * <p>
+ * Everything is kept in three primitive arrays: the heap of ids, the position
+ * of each id in the heap (-1 if absent) and the key of each id. Insertion,
+ * {@code decreaseKey} and {@code extractMin} take O(log(n)); {@code contains}
+ * and {@code keyOf} take O(1). Nothing is allocated after construction.
+ *
+ * @version 1.0
+ * @see Heap
+ * @see Dijkstra
+ */
+public class IndexedPriorityQueue {
+    private final int[] heap;
+    private final int[] positions;
+    private final long[] keys;
+    private int size;
+
+    /**
+     * Creates an empty queue for the ids from 0 to capacity - 1.
+     *
+     * @param capacity number of ids
+     */
+    public IndexedPriorityQueue(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new long[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns whether an id is in the queue.
+     *
+     * @param id id to look for
+     * @return true if the id is in the queue
+     */
+    public boolean contains(int id) {
+        return positions[id] >= 0;
+    }
+
+    /**
+     * Returns the key of an id in the queue.
+     *
+     * @param id id in the queue
+     * @return key of the id
+     */
+    public long keyOf(int id) {
+        checkContains(id);
+        return keys[id];
+    }
+
+    /**
+     * Adds an id to the queue.
+     *
+     * @param id  id not already in the queue
+     * @param key key of the id
+     */
+    public void insert(int id, long key) {
+        if (contains(id)) {
+            throw new IllegalArgumentException("Id already in queue: " + id);
+        }
+        keys[id] = key;
+        siftUp(size++, id);
+    }
+
+    /**
+     * Lowers the key of an id in the queue.
+     *
+     * @param id  id in the queue
+     * @param key new key, no larger than the current key
+     */
+    public void decreaseKey(int id, long key) {
+        checkContains(id);
+        if (key > keys[id]) {
+            throw new IllegalArgumentException("Key " + key + " is larger than " + keys[id]);
+        }
+        keys[id] = key;
+        siftUp(positions[id], id);
+    }
+
+    /**
+     * Returns the id with the smallest key.
+     *
+     * @return id with the smallest key
+     */
+    public int peekMin() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty queue.");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Returns the smallest key.
+     *
+     * @return smallest key
+     */
+    public long minKey() {
+        return keys[peekMin()];
+    }
+
+    /**
+     * Removes the id with the smallest key.
+     *
+     * @return id with the smallest key
+     */
+    public int extractMin() {
+        final int min = peekMin();
+        final int last = heap[--size];
+        positions[min] = -1;
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return min;
+    }
+
+    private void checkContains(int id) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("Id not in queue: " + id);
+        }
+    }
+
+    private void siftUp(int index, int id) {
+        final long key = keys[id];
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1, p = heap[parent];
+            if (key >= keys[p]) {
+                break;
+            }
+            heap[index] = p;
+            positions[p] = index;
+            index = parent;
+        }
+        heap[index] = id;
+        positions[id] = index;
+    }
+
+    private void siftDown(int index, int id) {
+        final long key = keys[id];
+        final int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1, c = heap[child];
+            if (child + 1 < size && keys[heap[child + 1]] < keys[c]) {
+                c = heap[++child];
+            }
+            if (keys[c] >= key) {
+                break;
+            }
+            heap[index] = c;
+            positions[c] = index;
+            index = child;
+        }
+        heap[index] = id;
+        positions[id] = index;
+    }
+}
@@ -1,17 +1,93 @@
 import java.util.Arrays;
+import java.util.Comparator;
 
 public interface InsertionSort {
     public static void sort(int[] arr) {
-        for (int i = 1; i < arr.length; i++) {
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * Sorts the inclusive range {@code [start, end]} of the array. Used as the
+     * cutoff for small partitions by the recursive sorts, where insertion sort
+     * beats any divide and conquer algorithm.
+     * 
+     * @param arr   array to be sorted
+     * @param start start index of the sorting
+     * @param end   end index of the sorting
+     */
+    public static void sort(int[] arr, int start, int end) {
+        for (int i = start + 1; i <= end; i++) {
             final int key = arr[i];
             int insert = i;
-            while (insert > 0 && key < arr[insert - 1]) {
+            while (insert > start && key < arr[insert - 1]) {
                 arr[insert] = arr[insert - 1];
                 insert--;
             }
             arr[insert] = key;
         }
     }
+
+    /**
+     * Binary insertion sort of {@code [lo, hi)} whose prefix {@code [lo, start)} is
+     * already sorted. Each insertion point is found by binary search, so only
+     * O(n log(n)) comparisons are made, and the shifting is a single array copy.
+     * Equal elements are inserted after their equals, so the sort is stable.
+     * 
+     * @param arr   array to be sorted
+     * @param lo    start index of the sorting, inclusive
+     * @param hi    end index of the sorting, exclusive
+     * @param start index of the first element that is not known to be sorted
+     */
+    public static void binarySort(int[] arr, int lo, int hi, int start) {
+        if (start == lo) {
+            start++;
+        }
+        for (; start < hi; start++) {
+            final int pivot = arr[start];
+            int left = lo, right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (pivot < arr[mid]) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(arr, left, arr, left + 1, start - left);
+            arr[left] = pivot;
+        }
+    }
+
+    /**
+     * Binary insertion sort of {@code [lo, hi)} for objects.
+     * 
+     * @param arr        array to be sorted
+     * @param lo         start index of the sorting, inclusive
+     * @param hi         end index of the sorting, exclusive
+     * @param start      index of the first element that is not known to be sorted
+     * @param comparator order of the elements
+     * @see #binarySort(int[], int, int, int)
+     */
+    public static <T> void binarySort(T[] arr, int lo, int hi, int start, Comparator<? super T> comparator) {
+        if (start == lo) {
+            start++;
+        }
+        for (; start < hi; start++) {
+            final T pivot = arr[start];
+            int left = lo, right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (comparator.compare(pivot, arr[mid]) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(arr, left, arr, left + 1, start - left);
+            arr[left] = pivot;
+        }
+    }
+
     public static void main(String[] args) {
         final int num = 100;
         int[] arr = new int[num];
@@ -0,0 +1,159 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link Heap} of {@code int} values stored in an {@code int[]}, so adding and
+ * removing never box. Elements are sifted up on add and down on remove, so
+ * both take O(log(n)), and a heap built from an array takes O(n).
+ * 
+ * @version 1.0
+ * @see Heap
+ */
+public class IntHeap {
+    private static final int DEFAULT_INITIAL_CAPACITY = 10;
+    private int[] heap;
+    private int size;
+    private final boolean isMax;
+
+    public IntHeap() {
+        this(DEFAULT_INITIAL_CAPACITY, false);
+    }
+
+    public IntHeap(int capacity, boolean isMax) {
+        heap = new int[Math.max(capacity, 1)];
+        this.isMax = isMax;
+    }
+
+    /**
+     * Builds a heap from the elements of an array in O(n). The array itself is
+     * not modified.
+     * 
+     * @param elements elements of the heap
+     * @param isMax    whether the first element is the largest
+     */
+    public IntHeap(int[] elements, boolean isMax) {
+        this(elements.length, isMax);
+        System.arraycopy(elements, 0, heap, 0, elements.length);
+        size = elements.length;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, heap[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the first element in the heap.
+     * 
+     * @return largest/smallest element of heap
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty heap.");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Adds an element to the heap.
+     * 
+     * @param element element to be added
+     */
+    public void add(int element) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length << 1);
+        }
+        siftUp(size++, element);
+    }
+
+    /**
+     * Removes the first element of the heap.
+     * 
+     * @return largest/smallest element of heap
+     */
+    public int remove() {
+        final int first = peek();
+        final int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return first;
+    }
+
+    /**
+     * Replaces the first element of the heap with another element. This is one
+     * sift down instead of a remove and an add.
+     * 
+     * @param element element to be added
+     * @return largest/smallest element of heap before the replacement
+     */
+    public int replaceTop(int element) {
+        final int first = peek();
+        siftDown(0, element);
+        return first;
+    }
+
+    /**
+     * Returns the elements of the heap in heap order.
+     * 
+     * @return copy of the backing array
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    /**
+     * Returns whether x belongs before y.
+     */
+    private boolean before(int x, int y) {
+        return isMax ? x > y : x < y;
+    }
+
+    private void siftUp(int index, int element) {
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            final int p = heap[parent];
+            if (!before(element, p)) {
+                break;
+            }
+            heap[index] = p;
+            index = parent;
+        }
+        heap[index] = element;
+    }
+
+    private void siftDown(int index, int element) {
+        final int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            int c = heap[child];
+            if (child + 1 < size && before(heap[child + 1], c)) {
+                c = heap[++child];
+            }
+            if (!before(c, element)) {
+                break;
+            }
+            heap[index] = c;
+            index = child;
+        }
+        heap[index] = element;
+    }
+
+    /**
+     * Returns String value for heap.
+     */
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
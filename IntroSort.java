@@ -0,0 +1,275 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Introspective QuickSort, the engine behind {@code QuickSort.parallelSort}.
+ * Plain {@link QuickSort} always pivots on the first element, so sorted and
+ * reverse-sorted arrays make it quadratic and the recursion as deep as the
+ * array is long. IntroSort fixes both problems:
+ * <p>
+ * Two pivots are taken from five evenly spaced samples (each sample is itself a
+ * median of three on large ranges, giving ninther-quality pivots), and the
+ * range is split into three parts by a dual-pivot partition. When the two
+ * pivots are equal the range is full of duplicates, so a three-way partition
+ * is used instead and the run of equal elements is never visited again.
+ * <p>
+ * Small ranges are finished by a branch-free {@link SortingNetwork}, and once
+ * the recursion gets deeper than 2 log(n) the range is handed to HeapSort,
+ * which guarantees O(n log(n)) no matter how bad the pivots are.
+ * <p>
+ * In parallel mode, each partition forks its parts as tasks on the common
+ * {@link ForkJoinPool} until they are small enough to be sorted sequentially.
+ *
+ * @version 1.0
+ * @see QuickSort
+ * @see SortingNetwork
+ * @see HeapSort
+ */
+public class IntroSort extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+    private static final int NETWORK_THRESHOLD = SortingNetwork.MAX_SIZE;
+    private static final int NINTHER_THRESHOLD = 1 << 10;
+    private static final int MIN_PARALLEL_GRANULARITY = 1 << 13;
+
+    private final int[] arr;
+    private final int low, high, depth, granularity;
+
+    private IntroSort(int[] arr, int low, int high, int depth, int granularity) {
+        this.arr = arr;
+        this.low = low;
+        this.high = high;
+        this.depth = depth;
+        this.granularity = granularity;
+    }
+
+    /**
+     * Sorts the inclusive range {@code [start, end]} of the array on the calling
+     * thread.
+     *
+     * @param arr   array to be sorted
+     * @param start start index of the sorting
+     * @param end   end index of the sorting
+     */
+    public static void sort(int[] arr, int start, int end) {
+        sort(arr, start, end, depthLimit(end - start + 1));
+    }
+
+    /**
+     * Sorts the inclusive range {@code [start, end]} of the array on the common
+     * {@link ForkJoinPool}. Ranges too small to be worth splitting are sorted on
+     * the calling thread.
+     *
+     * @param arr   array to be sorted
+     * @param start start index of the sorting
+     * @param end   end index of the sorting
+     */
+    public static void parallelSort(int[] arr, int start, int end) {
+        final int n = end - start + 1;
+        final int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (n <= MIN_PARALLEL_GRANULARITY || parallelism == 1) {
+            sort(arr, start, end);
+            return;
+        }
+        int granularity = Math.max(n / (parallelism << 3), MIN_PARALLEL_GRANULARITY);
+        ForkJoinPool.commonPool().invoke(new IntroSort(arr, start, end, depthLimit(n), granularity));
+    }
+
+    @Override
+    protected void compute() {
+        if (high - low < granularity || depth == 0) {
+            sort(arr, low, high, depth);
+            return;
+        }
+        long bounds = partition(arr, low, high);
+        int lt = (int) (bounds >>> 32), gt = (int) bounds;
+        IntroSort left = new IntroSort(arr, low, lt - 1, depth - 1, granularity);
+        IntroSort right = new IntroSort(arr, gt + 1, high, depth - 1, granularity);
+        if (arr[lt] != arr[gt]) {
+            invokeAll(left, new IntroSort(arr, lt + 1, gt - 1, depth - 1, granularity), right);
+        } else {
+            invokeAll(left, right);
+        }
+    }
+
+    /**
+     * Sequential introsort. Recurses on the left and middle parts and loops on
+     * the right part, so the stack never grows past the depth limit.
+     *
+     * @param arr   array to be sorted
+     * @param low   lower index of the range
+     * @param high  higher index of the range
+     * @param depth number of partitions allowed before falling back to HeapSort
+     */
+    private static void sort(int[] arr, int low, int high, int depth) {
+        while (high - low >= NETWORK_THRESHOLD) {
+            if (depth == 0) {
+                HeapSort.sort(arr, low, high);
+                return;
+            }
+            depth--;
+            long bounds = partition(arr, low, high);
+            int lt = (int) (bounds >>> 32), gt = (int) bounds;
+            sort(arr, low, lt - 1, depth);
+            if (arr[lt] != arr[gt]) {
+                sort(arr, lt + 1, gt - 1, depth);
+            }
+            low = gt + 1;
+        }
+        SortingNetwork.sort(arr, low, high);
+    }
+
+    /**
+     * Partitions the range around two pivots chosen from five samples. The
+     * result packs two indices {@code lt} (high 32 bits) and {@code gt} (low 32
+     * bits): everything in {@code [low, lt - 1]} belongs before
+     * {@code arr[lt]}, everything in {@code [gt + 1, high]} belongs after
+     * {@code arr[gt]}, and {@code [lt + 1, gt - 1]} still has to be sorted
+     * unless {@code arr[lt] == arr[gt]}, in which case the whole middle is equal
+     * to the pivot.
+     *
+     * @param arr  array in which the pivots will be found
+     * @param low  lower index for scanning
+     * @param high higher index for scanning
+     * @return the packed pivot indices
+     */
+    private static long partition(int[] arr, int low, int high) {
+        final int seventh = ((high - low + 1) >> 3) + ((high - low + 1) >> 6) + 1;
+        final int e3 = (low + high) >>> 1;
+        final int e2 = e3 - seventh, e1 = e2 - seventh;
+        final int e4 = e3 + seventh, e5 = e4 + seventh;
+        if (high - low >= NINTHER_THRESHOLD) {
+            final int d = seventh >> 2;
+            medianToMiddle(arr, e1 - d, e1, e1 + d);
+            medianToMiddle(arr, e2 - d, e2, e2 + d);
+            medianToMiddle(arr, e3 - d, e3, e3 + d);
+            medianToMiddle(arr, e4 - d, e4, e4 + d);
+            medianToMiddle(arr, e5 - d, e5, e5 + d);
+        }
+        sortFive(arr, e1, e2, e3, e4, e5);
+        if (arr[e2] != arr[e4]) {
+            swap(arr, low, e2);
+            swap(arr, high, e4);
+            return dualPivotPartition(arr, low, high);
+        }
+        return threeWayPartition(arr, low, high, arr[e3]);
+    }
+
+    /**
+     * Yaroslavskiy's dual-pivot partition with the pivots at {@code arr[low]} and
+     * {@code arr[high]}. Elements equal to a pivot go to the outer parts, so the
+     * middle part holds only elements strictly between the pivots.
+     */
+    private static long dualPivotPartition(int[] arr, int low, int high) {
+        final int p1 = arr[low], p2 = arr[high];
+        int lt = low + 1, gt = high - 1, k = lt;
+        while (k <= gt) {
+            if (arr[k] <= p1) {
+                swap(arr, k, lt);
+                lt++;
+            } else if (arr[k] >= p2) {
+                while (arr[gt] >= p2 && k < gt) {
+                    gt--;
+                }
+                swap(arr, k, gt);
+                gt--;
+                if (arr[k] <= p1) {
+                    swap(arr, k, lt);
+                    lt++;
+                }
+            }
+            k++;
+        }
+        lt--;
+        gt++;
+        swap(arr, low, lt);
+        swap(arr, high, gt);
+        return ((long) lt << 32) | (gt & 0xffffffffL);
+    }
+
+    /**
+     * Dijkstra's "Dutch national flag" partition around a single pivot. Used
+     * when the sampled pivots are equal, which means the range is full of
+     * duplicates.
+     */
+    private static long threeWayPartition(int[] arr, int low, int high, int pivot) {
+        int lt = low, gt = high, i = low;
+        while (i <= gt) {
+            int e = arr[i];
+            if (e < pivot) {
+                arr[i] = arr[lt];
+                arr[lt] = e;
+                lt++;
+                i++;
+            } else if (e > pivot) {
+                arr[i] = arr[gt];
+                arr[gt] = e;
+                gt--;
+            } else {
+                i++;
+            }
+        }
+        return ((long) lt << 32) | (gt & 0xffffffffL);
+    }
+
+    private static void medianToMiddle(int[] arr, int a, int b, int c) {
+        if (arr[a] > arr[b]) {
+            swap(arr, a, b);
+        }
+        if (arr[b] > arr[c]) {
+            swap(arr, b, c);
+            if (arr[a] > arr[b]) {
+                swap(arr, a, b);
+            }
+        }
+    }
+
+    /**
+     * Optimal nine-comparator sorting network over the five sample positions.
+     */
+    private static void sortFive(int[] arr, int e1, int e2, int e3, int e4, int e5) {
+        sortPair(arr, e1, e2);
+        sortPair(arr, e4, e5);
+        sortPair(arr, e3, e5);
+        sortPair(arr, e3, e4);
+        sortPair(arr, e2, e5);
+        sortPair(arr, e1, e4);
+        sortPair(arr, e1, e3);
+        sortPair(arr, e2, e4);
+        sortPair(arr, e2, e3);
+    }
+
+    private static void sortPair(int[] arr, int i, int j) {
+        if (arr[i] > arr[j]) {
+            swap(arr, i, j);
+        }
+    }
+
+    private static int depthLimit(int n) {
+        return n <= 1 ? 0 : (31 - Integer.numberOfLeadingZeros(n)) << 1;
+    }
+
+    private static void swap(int[] arr, int i, int j) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+    }
+
+    public static void main(String[] args) {
+        final int num = 10000000;
+        int[] arr = new int[num];
+        for (int i = 0; i < num; i++) {
+            arr[i] = i;
+        }
+        long begin = System.currentTimeMillis();
+        parallelSort(arr, 0, arr.length - 1);
+        long end = System.currentTimeMillis();
+        System.out.println("Sorted input: " + (end - begin));
+        for (int i = 0; i < num; i++) {
+            arr[i] = (int) (Math.random() * num);
+        }
+        begin = System.currentTimeMillis();
+        parallelSort(arr, 0, arr.length - 1);
+        end = System.currentTimeMillis();
+        System.out.println("Random input: " + (end - begin));
+    }
+}
@@ -0,0 +1,157 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min-heap of {@code int} payloads ordered by {@code long} keys, such as task
+ * ids ordered by deadline. Keys and payloads are kept in two parallel
+ * primitive arrays that always move together, so nothing is boxed and no
+ * entry objects are allocated. Like {@link Heap}, adding and removing take
+ * O(log(n)).
+ * 
+ * @version 1.0
+ * @see Heap
+ * @see LongHeap
+ */
+public class LongIntHeap {
+    private static final int DEFAULT_INITIAL_CAPACITY = 10;
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public LongIntHeap() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public LongIntHeap(int capacity) {
+        keys = new long[Math.max(capacity, 1)];
+        values = new int[keys.length];
+    }
+
+    /**
+     * Builds a heap from parallel arrays of keys and payloads in O(n). The arrays
+     * themselves are not modified.
+     * 
+     * @param keys   keys of the entries
+     * @param values payloads of the entries
+     */
+    public LongIntHeap(long[] keys, int[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Keys and values differ in length.");
+        }
+        this.keys = Arrays.copyOf(keys, Math.max(keys.length, 1));
+        this.values = Arrays.copyOf(values, this.keys.length);
+        size = keys.length;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, this.keys[i], this.values[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the smallest key in the heap.
+     * 
+     * @return smallest key
+     */
+    public long peekKey() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty heap.");
+        }
+        return keys[0];
+    }
+
+    /**
+     * Returns the payload of the smallest key in the heap.
+     * 
+     * @return payload of the smallest key
+     */
+    public int peekValue() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty heap.");
+        }
+        return values[0];
+    }
+
+    /**
+     * Adds an entry to the heap.
+     * 
+     * @param key   key of the entry
+     * @param value payload of the entry
+     */
+    public void add(long key, int value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, keys.length << 1);
+            values = Arrays.copyOf(values, keys.length);
+        }
+        siftUp(size++, key, value);
+    }
+
+    /**
+     * Removes the entry with the smallest key. Read its key with
+     * {@code peekKey()} first if it is needed.
+     * 
+     * @return payload of the smallest key
+     */
+    public int remove() {
+        final int first = peekValue();
+        final int last = --size;
+        if (last > 0) {
+            siftDown(0, keys[last], values[last]);
+        }
+        return first;
+    }
+
+    private void siftUp(int index, long key, int value) {
+        while (index > 0) {
+            final int parent = (index - 1) >>> 1;
+            if (key >= keys[parent]) {
+                break;
+            }
+            keys[index] = keys[parent];
+            values[index] = values[parent];
+            index = parent;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    private void siftDown(int index, long key, int value) {
+        final int half = size >>> 1;
+        while (index < half) {
+            int child = (index << 1) + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) {
+                break;
+            }
+            keys[index] = keys[child];
+            values[index] = values[child];
+            index = child;
+        }
+        keys[index] = key;
+        values[index] = value;
+    }
+
+    /**
+     * Returns String value for heap as key=value pairs in heap order.
+     */
+    @Override
+    public String toString() {
+        String str = "";
+        for (int i = 0; i < size; i++) {
+            str += keys[i] + "=" + values[i] + " ";
+        }
+        return str;
+    }
+}
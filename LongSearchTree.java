@@ -0,0 +1,390 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary search tree with primitive {@code long} keys, for lookups and range
+ * scans that would otherwise box every key into a {@link SearchTree}. Keys are
+ * ordered by a {@link LongComparator}, natural order by default, and each key
+ * is in the tree at most once.
+ * <p>
+ * Every operation is a loop rather than a recursion, so keys added in order,
+ * which make the tree a path, are slow but never overflow the stack. Each entry
+ * links to its parent, so an in-order walk steps from an entry to its successor
+ * in O(1) amortized without a stack: {@code rangeScan} and the iterator
+ * allocate nothing per entry visited, and a scan of m entries takes
+ * O(h + m), where h is the height of the tree.
+ * <p>
+ * The tree does not rebalance itself, so h is O(log(n)) only for keys added in
+ * random order; see {@link RedBlackTree} for a balanced tree.
+ *
+ * @version 1.0
+ * @see SearchTree
+ * @param <V> type of the value
+ */
+public class LongSearchTree<V> implements Iterable<LongSearchTree.Entry<V>> {
+    private final LongComparator comparator;
+    private Entry<V> root;
+    private int size;
+
+    /**
+     * Order of primitive long keys, without boxing them.
+     */
+    @FunctionalInterface
+    public interface LongComparator {
+        public int compare(long x, long y);
+    }
+
+    /**
+     * Receiver of the entries of a range scan.
+     *
+     * @param <V> type of the value
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        public void accept(long key, V value);
+    }
+
+    /**
+     * Key-value pair in the tree. Entries returned by the tree stay valid until
+     * they are removed; the value can be replaced through them.
+     *
+     * @param <V> type of the value
+     */
+    public static final class Entry<V> {
+        private final long key;
+        private V value;
+        private Entry<V> left, right, parent;
+
+        private Entry(long key, V value, Entry<V> parent) {
+            this.key = key;
+            this.value = value;
+            this.parent = parent;
+        }
+
+        public long getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public V setValue(V value) {
+            final V old = this.value;
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * Creates an empty tree ordered by {@code Long.compare}.
+     */
+    public LongSearchTree() {
+        this(Long::compare);
+    }
+
+    /**
+     * Creates an empty tree.
+     *
+     * @param comparator order of the keys
+     */
+    public LongSearchTree(LongComparator comparator) {
+        this.comparator = comparator;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds a key to the tree, or replaces its value if it is already there.
+     *
+     * @param key   key to be added
+     * @param value value of the key
+     * @return previous value of the key, or null if it was not in the tree
+     */
+    public V add(long key, V value) {
+        if (root == null) {
+            root = new Entry<>(key, value, null);
+            size = 1;
+            return null;
+        }
+        Entry<V> current = root;
+        while (true) {
+            final int c = comparator.compare(key, current.key);
+            if (c == 0) {
+                return current.setValue(value);
+            }
+            final Entry<V> next = c < 0 ? current.left : current.right;
+            if (next == null) {
+                if (c < 0) {
+                    current.left = new Entry<>(key, value, current);
+                } else {
+                    current.right = new Entry<>(key, value, current);
+                }
+                size++;
+                return null;
+            }
+            current = next;
+        }
+    }
+
+    /**
+     * Retrieves the value of a key.
+     *
+     * @param key key to be found
+     * @return value of the key, or null if it is not in the tree
+     */
+    public V get(long key) {
+        final Entry<V> entry = find(key);
+        return entry == null ? null : entry.value;
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) != null;
+    }
+
+    /**
+     * Removes a key from the tree. An entry with two children is replaced by
+     * its successor, which is moved rather than copied, so entries held by the
+     * caller keep their keys.
+     *
+     * @param key key to be removed
+     * @return value of the key, or null if it was not in the tree
+     */
+    public V remove(long key) {
+        final Entry<V> entry = find(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.left == null) {
+            transplant(entry, entry.right);
+        } else if (entry.right == null) {
+            transplant(entry, entry.left);
+        } else {
+            final Entry<V> successor = first(entry.right);
+            if (successor.parent != entry) {
+                transplant(successor, successor.right);
+                successor.right = entry.right;
+                successor.right.parent = successor;
+            }
+            transplant(entry, successor);
+            successor.left = entry.left;
+            successor.left.parent = successor;
+        }
+        entry.left = entry.right = entry.parent = null;
+        size--;
+        return entry.value;
+    }
+
+    /**
+     * Returns the entry with the smallest key in the tree.
+     *
+     * @return first entry, or null if the tree is empty
+     */
+    public Entry<V> first() {
+        return root == null ? null : first(root);
+    }
+
+    /**
+     * Returns the entry with the largest key in the tree.
+     *
+     * @return last entry, or null if the tree is empty
+     */
+    public Entry<V> last() {
+        if (root == null) {
+            return null;
+        }
+        Entry<V> current = root;
+        while (current.right != null) {
+            current = current.right;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the entry with the largest key no greater than the given key.
+     *
+     * @param key upper bound
+     * @return floor entry, or null if every key is greater
+     */
+    public Entry<V> floor(long key) {
+        Entry<V> current = root, floor = null;
+        while (current != null) {
+            final int c = comparator.compare(key, current.key);
+            if (c == 0) {
+                return current;
+            }
+            if (c < 0) {
+                current = current.left;
+            } else {
+                floor = current;
+                current = current.right;
+            }
+        }
+        return floor;
+    }
+
+    /**
+     * Returns the entry with the smallest key no less than the given key.
+     *
+     * @param key lower bound
+     * @return ceiling entry, or null if every key is less
+     */
+    public Entry<V> ceiling(long key) {
+        Entry<V> current = root, ceiling = null;
+        while (current != null) {
+            final int c = comparator.compare(key, current.key);
+            if (c == 0) {
+                return current;
+            }
+            if (c > 0) {
+                current = current.right;
+            } else {
+                ceiling = current;
+                current = current.left;
+            }
+        }
+        return ceiling;
+    }
+
+    /**
+     * Passes every entry with a key from lo to hi inclusive to the consumer, in
+     * order. The scan descends once to the ceiling of lo and then steps from
+     * successor to successor, so it allocates nothing. The consumer must not
+     * add or remove keys.
+     *
+     * @param lo       smallest key of the range
+     * @param hi       largest key of the range
+     * @param consumer receiver of the entries
+     * @return number of entries passed to the consumer
+     */
+    public int rangeScan(long lo, long hi, EntryConsumer<? super V> consumer) {
+        int count = 0;
+        for (Entry<V> e = ceiling(lo); e != null && comparator.compare(e.key, hi) <= 0; e = successor(e)) {
+            consumer.accept(e.key, e.value);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the entry following the given one in order.
+     *
+     * @param entry entry in this tree
+     * @return next entry, or null if the entry is the last one
+     */
+    public Entry<V> successor(Entry<V> entry) {
+        if (entry.right != null) {
+            return first(entry.right);
+        }
+        Entry<V> child = entry, parent = entry.parent;
+        while (parent != null && child == parent.right) {
+            child = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+
+    /**
+     * Iterates over the entries in order. The iterator only holds the next
+     * entry, so each step allocates nothing; {@code remove} removes the entry
+     * last returned.
+     */
+    @Override
+    public Iterator<Entry<V>> iterator() {
+        return new Iterator<Entry<V>>() {
+            private Entry<V> next = first(), last;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Entry<V> next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                last = next;
+                next = successor(next);
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                LongSearchTree.this.remove(last.key);
+                last = null;
+            }
+        };
+    }
+
+    private Entry<V> find(long key) {
+        Entry<V> current = root;
+        while (current != null) {
+            final int c = comparator.compare(key, current.key);
+            if (c == 0) {
+                return current;
+            }
+            current = c < 0 ? current.left : current.right;
+        }
+        return null;
+    }
+
+    private static <V> Entry<V> first(Entry<V> entry) {
+        while (entry.left != null) {
+            entry = entry.left;
+        }
+        return entry;
+    }
+
+    /**
+     * Puts the subtree rooted at replacement in the place of the subtree rooted
+     * at entry.
+     */
+    private void transplant(Entry<V> entry, Entry<V> replacement) {
+        if (entry.parent == null) {
+            root = replacement;
+        } else if (entry == entry.parent.left) {
+            entry.parent.left = replacement;
+        } else {
+            entry.parent.right = replacement;
+        }
+        if (replacement != null) {
+            replacement.parent = entry.parent;
+        }
+    }
+
+    public static void main(String[] args) {
+        final int num = 1000000, scans = 100000;
+        LongSearchTree<Integer> tree = new LongSearchTree<>();
+        java.util.Random random = new java.util.Random(0);
+        long begin = System.currentTimeMillis();
+        for (int i = 0; i < num; i++) {
+            tree.add(random.nextLong() >>> 2, i);
+        }
+        long end = System.currentTimeMillis();
+        System.out.println("Add: " + (end - begin));
+        final long width = (Long.MAX_VALUE >>> 1) / num * 100;
+        long visited = 0;
+        begin = System.currentTimeMillis();
+        for (int i = 0; i < scans; i++) {
+            final long lo = random.nextLong() >>> 2;
+            visited += tree.rangeScan(lo, lo + width, (k, v) -> { });
+        }
+        end = System.currentTimeMillis();
+        System.out.println("Range scans: " + (end - begin) + " (" + visited / scans + " entries each)");
+    }
+}
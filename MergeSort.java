@@ -1,6 +1,8 @@
 import java.util.Queue;
 import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * A superior implementation of MergeSort than the implementation for sorting lists
@@ -8,12 +10,96 @@ import java.util.LinkedList;
  * although Queues are used for convenience during the merging process
  * (we want to use the first in first out property).
  * Note that this method is a void method, since it is an in-place sorting algorithm.
+ * <p>
+ * {@code parallelSort} is the allocation-free mode: it allocates a single
+ * scratch array up front and alternates the roles of the array and the scratch
+ * on every level, so nothing is boxed or copied back. Both halves and the merge
+ * itself (split by binary search) run in parallel on the common
+ * {@link ForkJoinPool}. The sort is stable.
  * 
  * @author Anwen Hao
  * @version 1.0
  * @see MergeSortList
  */
 public class MergeSort {
+    private static final int NETWORK_THRESHOLD = SortingNetwork.MAX_SIZE;
+    private static final int MIN_PARALLEL_GRANULARITY = 1 << 13;
+
+    /**
+     * Sorts one half of the range into {@code dst}. Both arrays must hold the same
+     * elements in {@code [lo, hi)} when the task starts.
+     */
+    private static final class Sorter extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] src, dst;
+        private final int lo, hi, granularity;
+
+        private Sorter(int[] src, int[] dst, int lo, int hi, int granularity) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= granularity) {
+                mergeSort(src, dst, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new Sorter(dst, src, lo, mid, granularity), new Sorter(dst, src, mid, hi, granularity));
+            if (src[mid - 1] <= src[mid]) {
+                System.arraycopy(src, lo, dst, lo, hi - lo);
+            } else {
+                new Merger(src, dst, lo, mid, mid, hi, lo, granularity).compute();
+            }
+        }
+    }
+
+    /**
+     * Merges two sorted runs of {@code src} into {@code dst}. Large merges are cut
+     * in two at the middle of the longer run, and the matching cut in the other
+     * run is found by binary search, so both halves can be merged independently.
+     */
+    private static final class Merger extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int[] src, dst;
+        private final int lo1, hi1, lo2, hi2, out, granularity;
+
+        private Merger(int[] src, int[] dst, int lo1, int hi1, int lo2, int hi2, int out, int granularity) {
+            this.src = src;
+            this.dst = dst;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.out = out;
+            this.granularity = granularity;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi1 - lo1 + hi2 - lo2 <= granularity) {
+                merge(src, lo1, hi1, lo2, hi2, dst, out);
+                return;
+            }
+            int cut1, cut2;
+            if (hi1 - lo1 >= hi2 - lo2) {
+                // Elements of the right run equal to the cut stay after it (stability)
+                cut1 = (lo1 + hi1) >>> 1;
+                cut2 = lowerBound(src, lo2, hi2, src[cut1]);
+            } else {
+                cut2 = (lo2 + hi2) >>> 1;
+                cut1 = upperBound(src, lo1, hi1, src[cut2]);
+            }
+            int split = out + (cut1 - lo1) + (cut2 - lo2);
+            invokeAll(new Merger(src, dst, lo1, cut1, lo2, cut2, out, granularity),
+                    new Merger(src, dst, cut1, hi1, cut2, hi2, split, granularity));
+        }
+    }
+
     public static void sort(int[] arr) {
         sort(arr, 0, arr.length - 1);
     }
@@ -51,6 +137,99 @@ public class MergeSort {
         }
     }
 
+    /**
+     * Sorts a given array in parallel without boxing. Allocates exactly one
+     * scratch array of the same length.
+     * 
+     * @param arr array to be sorted
+     */
+    public static void parallelSort(int[] arr) {
+        final int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        final int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        final int[] buffer = Arrays.copyOf(arr, n);
+        if (n <= MIN_PARALLEL_GRANULARITY || parallelism == 1) {
+            mergeSort(buffer, arr, 0, n);
+            return;
+        }
+        int granularity = Math.max(n / (parallelism << 3), MIN_PARALLEL_GRANULARITY);
+        ForkJoinPool.commonPool().invoke(new Sorter(buffer, arr, 0, n, granularity));
+    }
+
+    /**
+     * Sequential ping-pong merge sort of {@code [lo, hi)}. The halves are sorted
+     * into {@code src}, which the caller no longer needs, and then merged back into
+     * {@code dst}. Requires both arrays to hold the same elements in the range.
+     * 
+     * @param src scratch array holding the same elements as dst
+     * @param dst array receiving the sorted range
+     * @param lo  start index of the sorting, inclusive
+     * @param hi  end index of the sorting, exclusive
+     */
+    private static void mergeSort(int[] src, int[] dst, int lo, int hi) {
+        if (hi - lo <= NETWORK_THRESHOLD) {
+            SortingNetwork.sort(dst, lo, hi - 1);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(dst, src, lo, mid);
+        mergeSort(dst, src, mid, hi);
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+        merge(src, lo, mid, mid, hi, dst, lo);
+    }
+
+    /**
+     * Merges the sorted runs {@code src[lo1, hi1)} and {@code src[lo2, hi2)} into
+     * {@code dst} starting at {@code out}. Ties are taken from the first run.
+     */
+    private static void merge(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out) {
+        while (lo1 < hi1 && lo2 < hi2) {
+            dst[out++] = src[lo2] < src[lo1] ? src[lo2++] : src[lo1++];
+        }
+        if (lo1 < hi1) {
+            System.arraycopy(src, lo1, dst, out, hi1 - lo1);
+        } else if (lo2 < hi2) {
+            System.arraycopy(src, lo2, dst, out, hi2 - lo2);
+        }
+    }
+
+    /**
+     * Returns the first index in {@code [lo, hi)} whose element is not less than
+     * the key.
+     */
+    private static int lowerBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first index in {@code [lo, hi)} whose element is greater than
+     * the key.
+     */
+    private static int upperBound(int[] arr, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (arr[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
     public static void main(String[] args) {
         int[] arr = {(int) (50 * Math.random()), (int) (50 * Math.random()), (int) (50 * Math.random()), (int) (50 * Math.random()), (int) (50 * Math.random())};
         sort(arr);
@@ -1,5 +1,8 @@
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.LinkedList;
+import java.util.ListIterator;
 
 /**
  * Implements MergeSort algorithm for sorting ArrayLists. This was developed by
@@ -11,6 +14,13 @@ import java.util.LinkedList;
  * subarray is exhausted, and we can just append the subarray of the subarray to
  * the List for sorted values. For more sorting algorithms, see
  * {@link QuickSort} and {@link SelectionSort}.
+ * <p>
+ * {@code mergeSort} indexes into the List with {@code get}, which is O(n) on a
+ * LinkedList, so prefer {@code sort(List, Comparator)}: it never indexes or
+ * copies sublists. Elements are linked into a chain by an array of next
+ * pointers, natural runs are found in one scan, and adjacent runs are merged
+ * bottom-up by relinking the chain. The result is written back through a
+ * ListIterator, so any List is sorted in O(n log(n)) time.
  * 
  * @author Anwen Hao
  * @version 1.0
@@ -65,6 +75,108 @@ public interface MergeSortList {
         return sortedArr;
     }
 
+    /**
+     * Sorts a given List in place with a stable, natural bottom-up merge sort.
+     * Allocates two arrays of the List's size and nothing per comparison.
+     * 
+     * @param list       List to be sorted
+     * @param comparator order of the elements, or null for natural ordering
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void sort(List<T> list, Comparator<? super T> comparator) {
+        final Comparator<? super T> c = comparator != null
+            ? comparator
+            : (x, y) -> ((Comparable<? super T>) x).compareTo(y);
+        final Object[] values = new Object[list.size()];
+        final int n = values.length;
+        int i = 0;
+        for (T e : list) {
+            values[i++] = e;
+        }
+        if (n < 2) {
+            return;
+        }
+        final int[] next = new int[n];
+        int[] runs = new int[16];
+        int runCount = 0;
+        /* Splits the elements into natural runs, reversing strictly descending ones */
+        for (int start = 0; start < n;) {
+            int end = start;
+            int head = start;
+            if (end + 1 < n && c.compare((T) values[end + 1], (T) values[end]) < 0) {
+                while (end + 1 < n && c.compare((T) values[end + 1], (T) values[end]) < 0) {
+                    end++;
+                }
+                head = end;
+                for (int j = end; j > start; j--) {
+                    next[j] = j - 1;
+                }
+                next[start] = -1;
+            } else {
+                while (end + 1 < n && c.compare((T) values[end + 1], (T) values[end]) >= 0) {
+                    end++;
+                }
+                for (int j = start; j < end; j++) {
+                    next[j] = j + 1;
+                }
+                next[end] = -1;
+            }
+            if (runCount == runs.length) {
+                runs = Arrays.copyOf(runs, runCount << 1);
+            }
+            runs[runCount++] = head;
+            start = end + 1;
+        }
+        /* Merges adjacent runs pairwise until only one run is left */
+        while (runCount > 1) {
+            int merged = 0;
+            for (int r = 0; r + 1 < runCount; r += 2) {
+                runs[merged++] = merge(values, next, runs[r], runs[r + 1], c);
+            }
+            if ((runCount & 1) == 1) {
+                runs[merged++] = runs[runCount - 1];
+            }
+            runCount = merged;
+        }
+        ListIterator<T> it = list.listIterator();
+        for (int node = runs[0]; node != -1; node = next[node]) {
+            it.next();
+            it.set((T) values[node]);
+        }
+    }
+
+    /**
+     * Merges two chains of elements by relinking them. Ties are taken from the
+     * first chain, which keeps the sort stable.
+     * 
+     * @return head of the merged chain
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> int merge(Object[] values, int[] next, int a, int b, Comparator<? super T> c) {
+        int head;
+        if (c.compare((T) values[b], (T) values[a]) < 0) {
+            head = b;
+            b = next[b];
+        } else {
+            head = a;
+            a = next[a];
+        }
+        int tail = head;
+        while (a != -1 && b != -1) {
+            if (c.compare((T) values[b], (T) values[a]) < 0) {
+                next[tail] = b;
+                tail = b;
+                b = next[b];
+            } else {
+                next[tail] = a;
+                tail = a;
+                a = next[a];
+            }
+        }
+        next[tail] = a != -1 ? a : b;
+        return head;
+    }
+
     public static void main(String[] args) {
         final int num = 1000;
         List<Integer> l = new LinkedList<>();
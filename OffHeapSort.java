@@ -0,0 +1,360 @@
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Sorts int and long keys that live off the heap, in direct buffers or in
+ * memory-mapped files, without copying them into an array. Other sorts in this
+ * repository need the keys in an {@code int[]} (see {@link RadixSort}), and
+ * {@link ExternalSort} writes its output to a new file; this sorts the memory
+ * where the keys already are.
+ * <p>
+ * The sort is an in-place MSD radix sort (American flag sort) on 8-bit digits:
+ * each pass counts the digits of a range, then swaps every element directly
+ * into its bucket by following cycles, and sorts each bucket on the next digit.
+ * The sign bit is flipped when extracting the top digit so that negative keys
+ * come first. Buckets of at most {@code SMALL_BUCKET} keys are copied into one
+ * small reusable array and sorted there, so the heap used by a sort is bounded
+ * no matter how many keys it sorts.
+ * <p>
+ * A single buffer holds at most 2 GB, so files are mapped in several windows
+ * and every key is addressed by a {@code long} index, which lets a file be
+ * sorted in place no matter how large it is.
+ *
+ * @version 1.0
+ * @see RadixSort
+ * @see ExternalSort
+ */
+public class OffHeapSort {
+    public static final int SMALL_BUCKET = 1 << 10;
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int INT_WINDOW_SHIFT = 28;
+    private static final int LONG_WINDOW_SHIFT = 27;
+
+    /**
+     * Sorts the keys between the position and the limit of a buffer in place.
+     * The position and the limit are left unchanged.
+     *
+     * @param buffer keys to be sorted, usually a direct or mapped buffer
+     */
+    public static void sort(IntBuffer buffer) {
+        final IntColumn column = new IntColumn(buffer);
+        new IntSorter(column).sort(0, column.size);
+    }
+
+    /**
+     * Sorts the keys between the position and the limit of a buffer in place.
+     * The position and the limit are left unchanged.
+     *
+     * @param buffer keys to be sorted, usually a direct or mapped buffer
+     */
+    public static void sort(LongBuffer buffer) {
+        final LongColumn column = new LongColumn(buffer);
+        new LongSorter(column).sort(0, column.size);
+    }
+
+    /**
+     * Sorts a file of 32-bit keys in place by mapping it into memory.
+     *
+     * @param file  file of 32-bit keys
+     * @param order byte order of the keys
+     * @throws IOException if the file cannot be mapped
+     */
+    public static void sortInts(Path file, ByteOrder order) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer[] mapped = map(channel, Integer.BYTES, INT_WINDOW_SHIFT);
+            final IntBuffer[] windows = new IntBuffer[mapped.length];
+            for (int w = 0; w < windows.length; w++) {
+                windows[w] = mapped[w].order(order).asIntBuffer();
+            }
+            final IntColumn column = new IntColumn(windows, channel.size() / Integer.BYTES);
+            new IntSorter(column).sort(0, column.size);
+            for (MappedByteBuffer window : mapped) {
+                window.force();
+            }
+        }
+    }
+
+    /**
+     * Sorts a file of 64-bit keys in place by mapping it into memory.
+     *
+     * @param file  file of 64-bit keys
+     * @param order byte order of the keys
+     * @throws IOException if the file cannot be mapped
+     */
+    public static void sortLongs(Path file, ByteOrder order) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer[] mapped = map(channel, Long.BYTES, LONG_WINDOW_SHIFT);
+            final LongBuffer[] windows = new LongBuffer[mapped.length];
+            for (int w = 0; w < windows.length; w++) {
+                windows[w] = mapped[w].order(order).asLongBuffer();
+            }
+            final LongColumn column = new LongColumn(windows, channel.size() / Long.BYTES);
+            new LongSorter(column).sort(0, column.size);
+            for (MappedByteBuffer window : mapped) {
+                window.force();
+            }
+        }
+    }
+
+    /**
+     * Maps a file in consecutive windows of 2^windowShift keys each.
+     */
+    private static MappedByteBuffer[] map(FileChannel channel, int keyBytes, int windowShift) throws IOException {
+        final long size = channel.size();
+        if (size % keyBytes != 0) {
+            throw new IOException("File is not a multiple of " + keyBytes + " bytes long.");
+        }
+        final long windowBytes = (long) keyBytes << windowShift;
+        final MappedByteBuffer[] mapped = new MappedByteBuffer[(int) ((size + windowBytes - 1) / windowBytes)];
+        for (int w = 0; w < mapped.length; w++) {
+            final long start = w * windowBytes;
+            mapped[w] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(windowBytes, size - start));
+        }
+        return mapped;
+    }
+
+    /**
+     * Keys addressed by a {@code long} index across one or more windows.
+     */
+    private static final class IntColumn {
+        private static final int MASK = (1 << INT_WINDOW_SHIFT) - 1;
+        private final IntBuffer[] windows;
+        private final long size;
+
+        private IntColumn(IntBuffer buffer) {
+            final int n = buffer.remaining();
+            windows = new IntBuffer[(int) (((long) n + MASK) >>> INT_WINDOW_SHIFT)];
+            for (int w = 0; w < windows.length; w++) {
+                final int start = buffer.position() + (w << INT_WINDOW_SHIFT);
+                windows[w] = buffer.duplicate().position(start)
+                        .limit((int) Math.min(buffer.limit(), (long) start + MASK + 1)).slice();
+            }
+            size = n;
+        }
+
+        private IntColumn(IntBuffer[] windows, long size) {
+            this.windows = windows;
+            this.size = size;
+        }
+
+        private int get(long i) {
+            return windows[(int) (i >>> INT_WINDOW_SHIFT)].get((int) i & MASK);
+        }
+
+        private void put(long i, int value) {
+            windows[(int) (i >>> INT_WINDOW_SHIFT)].put((int) i & MASK, value);
+        }
+    }
+
+    /**
+     * Keys addressed by a {@code long} index across one or more windows.
+     */
+    private static final class LongColumn {
+        private static final int MASK = (1 << LONG_WINDOW_SHIFT) - 1;
+        private final LongBuffer[] windows;
+        private final long size;
+
+        private LongColumn(LongBuffer buffer) {
+            final int n = buffer.remaining();
+            windows = new LongBuffer[(int) (((long) n + MASK) >>> LONG_WINDOW_SHIFT)];
+            for (int w = 0; w < windows.length; w++) {
+                final int start = buffer.position() + (w << LONG_WINDOW_SHIFT);
+                windows[w] = buffer.duplicate().position(start)
+                        .limit((int) Math.min(buffer.limit(), (long) start + MASK + 1)).slice();
+            }
+            size = n;
+        }
+
+        private LongColumn(LongBuffer[] windows, long size) {
+            this.windows = windows;
+            this.size = size;
+        }
+
+        private long get(long i) {
+            return windows[(int) (i >>> LONG_WINDOW_SHIFT)].get((int) i & MASK);
+        }
+
+        private void put(long i, long value) {
+            windows[(int) (i >>> LONG_WINDOW_SHIFT)].put((int) i & MASK, value);
+        }
+    }
+
+    /**
+     * American flag sort over an {@link IntColumn}. Every recursion level owns
+     * its own bucket arrays, since a level still walks its buckets while the
+     * next level sorts them.
+     */
+    private static final class IntSorter {
+        private final IntColumn column;
+        private final long[][] heads = new long[Integer.SIZE / DIGIT_BITS][RADIX];
+        private final long[][] tails = new long[Integer.SIZE / DIGIT_BITS][RADIX];
+        private final int[] small = new int[SMALL_BUCKET];
+
+        private IntSorter(IntColumn column) {
+            this.column = column;
+        }
+
+        private void sort(long lo, long hi) {
+            sort(lo, hi, 0);
+        }
+
+        /**
+         * Sorts [lo, hi) on the digit of the given level and below.
+         */
+        private void sort(long lo, long hi, int level) {
+            if (hi - lo <= SMALL_BUCKET) {
+                sortSmall(lo, hi);
+                return;
+            }
+            final int shift = Integer.SIZE - DIGIT_BITS * (level + 1);
+            final int flip = level == 0 ? Integer.MIN_VALUE : 0;
+            final long[] head = heads[level], tail = tails[level];
+            Arrays.fill(tail, 0);
+            for (long i = lo; i < hi; i++) {
+                tail[((column.get(i) ^ flip) >>> shift) & (RADIX - 1)]++;
+            }
+            if (tail[((column.get(lo) ^ flip) >>> shift) & (RADIX - 1)] == hi - lo) {
+                if (shift > 0) {
+                    sort(lo, hi, level + 1);
+                }
+                return;
+            }
+            for (int d = 0; d < RADIX; d++) {
+                head[d] = d == 0 ? lo : tail[d - 1];
+                tail[d] += head[d];
+            }
+            for (int d = 0; d < RADIX; d++) {
+                while (head[d] < tail[d]) {
+                    int e = column.get(head[d]);
+                    int digit = ((e ^ flip) >>> shift) & (RADIX - 1);
+                    while (digit != d) {
+                        final int displaced = column.get(head[digit]);
+                        column.put(head[digit]++, e);
+                        e = displaced;
+                        digit = ((e ^ flip) >>> shift) & (RADIX - 1);
+                    }
+                    column.put(head[d]++, e);
+                }
+            }
+            if (shift > 0) {
+                for (int d = 0; d < RADIX; d++) {
+                    final long start = d == 0 ? lo : tail[d - 1];
+                    if (tail[d] - start > 1) {
+                        sort(start, tail[d], level + 1);
+                    }
+                }
+            }
+        }
+
+        private void sortSmall(long lo, long hi) {
+            final int n = (int) (hi - lo);
+            for (int i = 0; i < n; i++) {
+                small[i] = column.get(lo + i);
+            }
+            IntroSort.sort(small, 0, n - 1);
+            for (int i = 0; i < n; i++) {
+                column.put(lo + i, small[i]);
+            }
+        }
+    }
+
+    /**
+     * American flag sort over a {@link LongColumn}.
+     */
+    private static final class LongSorter {
+        private final LongColumn column;
+        private final long[][] heads = new long[Long.SIZE / DIGIT_BITS][RADIX];
+        private final long[][] tails = new long[Long.SIZE / DIGIT_BITS][RADIX];
+        private final long[] small = new long[SMALL_BUCKET];
+
+        private LongSorter(LongColumn column) {
+            this.column = column;
+        }
+
+        private void sort(long lo, long hi) {
+            sort(lo, hi, 0);
+        }
+
+        private void sort(long lo, long hi, int level) {
+            if (hi - lo <= SMALL_BUCKET) {
+                sortSmall(lo, hi);
+                return;
+            }
+            final int shift = Long.SIZE - DIGIT_BITS * (level + 1);
+            final long flip = level == 0 ? Long.MIN_VALUE : 0;
+            final long[] head = heads[level], tail = tails[level];
+            Arrays.fill(tail, 0);
+            for (long i = lo; i < hi; i++) {
+                tail[(int) ((column.get(i) ^ flip) >>> shift) & (RADIX - 1)]++;
+            }
+            if (tail[(int) ((column.get(lo) ^ flip) >>> shift) & (RADIX - 1)] == hi - lo) {
+                if (shift > 0) {
+                    sort(lo, hi, level + 1);
+                }
+                return;
+            }
+            for (int d = 0; d < RADIX; d++) {
+                head[d] = d == 0 ? lo : tail[d - 1];
+                tail[d] += head[d];
+            }
+            for (int d = 0; d < RADIX; d++) {
+                while (head[d] < tail[d]) {
+                    long e = column.get(head[d]);
+                    int digit = (int) ((e ^ flip) >>> shift) & (RADIX - 1);
+                    while (digit != d) {
+                        final long displaced = column.get(head[digit]);
+                        column.put(head[digit]++, e);
+                        e = displaced;
+                        digit = (int) ((e ^ flip) >>> shift) & (RADIX - 1);
+                    }
+                    column.put(head[d]++, e);
+                }
+            }
+            if (shift > 0) {
+                for (int d = 0; d < RADIX; d++) {
+                    final long start = d == 0 ? lo : tail[d - 1];
+                    if (tail[d] - start > 1) {
+                        sort(start, tail[d], level + 1);
+                    }
+                }
+            }
+        }
+
+        private void sortSmall(long lo, long hi) {
+            final int n = (int) (hi - lo);
+            for (int i = 0; i < n; i++) {
+                small[i] = column.get(lo + i);
+            }
+            Arrays.sort(small, 0, n);
+            for (int i = 0; i < n; i++) {
+                column.put(lo + i, small[i]);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        final int num = 10000000;
+        Path file = Files.createTempFile("keys", ".bin");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            IntBuffer keys = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) num << 2)
+                    .order(ByteOrder.nativeOrder()).asIntBuffer();
+            for (int i = 0; i < num; i++) {
+                keys.put(i, (int) (Math.random() * Integer.MAX_VALUE));
+            }
+        }
+        long begin = System.currentTimeMillis();
+        sortInts(file, ByteOrder.nativeOrder());
+        long end = System.currentTimeMillis();
+        System.out.println("OffHeapSort: " + (end - begin));
+        Files.delete(file);
+    }
+}
@@ -1,4 +1,6 @@
 import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
@@ -21,7 +23,13 @@ import java.lang.annotation.Target;
  * <p>
  * In Data Structures course, we will only be focusing on:
  * O(1), O(n), O(n^2), O(2^n), and O(log(n)).
+ * <p>
+ * The annotation is retained at runtime, so {@link GrowthVerifier} can time
+ * annotated methods and check the claim.
+ * 
+ * @see GrowthVerifier
  */
+@Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface OrdersOfGrowth {
     /**
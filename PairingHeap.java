@@ -0,0 +1,160 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Min-heap of ints as a pairing heap: a single heap-ordered tree of any shape,
+ * where every node keeps a pointer to its first child and to its next
+ * sibling. Melding two heaps makes the root with the larger element the first
+ * child of the other root, so adding an element and merging whole heaps take
+ * O(1). Removing the root pairs up its children from left to right and then
+ * melds the pairs from right to left, which takes amortized O(log(n)).
+ * <p>
+ * Unlike the array heaps ({@link DaryHeap}, {@link PriorityQueue}), each
+ * element is a node on the heap, which is the price of the constant-time
+ * merge.
+ *
+ * @version 1.0
+ * @see DaryHeap
+ * @see HeapForest
+ */
+public class PairingHeap {
+    private Node root;
+    private int size;
+
+    private static final class Node {
+        private final int element;
+        private Node child, sibling;
+
+        private Node(int element) {
+            this.element = element;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the smallest element.
+     *
+     * @return smallest element
+     */
+    public int peek() {
+        if (root == null) {
+            throw new NoSuchElementException("Empty heap.");
+        }
+        return root.element;
+    }
+
+    /**
+     * Adds an element to the heap by melding it with the root.
+     *
+     * @param element element to be added
+     */
+    public void add(int element) {
+        root = meld(root, new Node(element));
+        size++;
+    }
+
+    /**
+     * Moves every element of another heap into this one. The other heap is left
+     * empty.
+     *
+     * @param other heap to be merged
+     */
+    public void merge(PairingHeap other) {
+        if (other == this) {
+            return;
+        }
+        root = meld(root, other.root);
+        size += other.size;
+        other.root = null;
+        other.size = 0;
+    }
+
+    /**
+     * Removes the smallest element. Its children are melded in pairs from left to
+     * right, and the pairs are then melded from right to left into a single tree.
+     *
+     * @return smallest element
+     */
+    public int remove() {
+        final int first = peek();
+        Node pairs = null, next = root.child;
+        while (next != null) {
+            final Node a = next, b = a.sibling;
+            if (b == null) {
+                a.sibling = pairs;
+                pairs = a;
+                break;
+            }
+            next = b.sibling;
+            a.sibling = b.sibling = null;
+            final Node pair = meld(a, b);
+            pair.sibling = pairs;
+            pairs = pair;
+        }
+        Node tree = null;
+        while (pairs != null) {
+            final Node pair = pairs;
+            pairs = pairs.sibling;
+            pair.sibling = null;
+            tree = meld(tree, pair);
+        }
+        root = tree;
+        size--;
+        return first;
+    }
+
+    /**
+     * Makes the root with the larger element the first child of the other.
+     * Both nodes must be roots without siblings.
+     */
+    private static Node meld(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (b.element < a.element) {
+            final Node temp = a;
+            a = b;
+            b = temp;
+        }
+        b.sibling = a.child;
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Sorts an array by adding every element to a pairing heap and removing them
+     * in order, for amortized O(n log(n)).
+     *
+     * @param arr array to be sorted
+     */
+    public static void heapSort(int[] arr) {
+        PairingHeap heap = new PairingHeap();
+        for (int e : arr) {
+            heap.add(e);
+        }
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = heap.remove();
+        }
+    }
+
+    public static void main(String[] args) {
+        final int num = 1000000;
+        int[] arr = new int[num];
+        for (int i = 0; i < num; i++) {
+            arr[i] = (int) (Math.random() * Integer.MAX_VALUE);
+        }
+        long begin = System.currentTimeMillis();
+        heapSort(arr);
+        long end = System.currentTimeMillis();
+        System.out.println("PairingHeap sort: " + (end - begin));
+    }
+}
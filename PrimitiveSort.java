@@ -0,0 +1,222 @@
+/**
+ * Sorts for {@code long[]} and {@code double[]}, and argsorts that return the
+ * permutation ordering an array without moving it. None of them box: every
+ * variant maps its keys to {@code long}s that compare in the same order and
+ * hands them to one primitive kernel, a binary-digit LSD radix sort (see
+ * {@link RadixSort}) that can carry an {@code int} index along with each key.
+ * {@code int} keys are mapped into the low 32 bits only, so the kernel makes
+ * the passes for those bits and skips the high word.
+ * <p>
+ * Doubles are ordered the same way as {@link Double#compare}: -0.0 comes
+ * before 0.0, and NaN comes after positive infinity. Argsorts are stable, so
+ * equal keys keep the order of their indices.
+ *
+ * @version 1.1
+ * @see Sortable
+ * @see RadixSort
+ */
+public interface PrimitiveSort {
+    Sortable.OfInt INT = RadixSort::sort;
+    Sortable.OfLong LONG = PrimitiveSort::sort;
+    Sortable.OfDouble DOUBLE = PrimitiveSort::sort;
+
+    /**
+     * Sorts a given array in place.
+     *
+     * @param arr array to be sorted
+     */
+    public static void sort(long[] arr) {
+        radixSort(arr, null, Long.SIZE);
+    }
+
+    /**
+     * Sorts a given array in place in the total order of {@link Double#compare}.
+     *
+     * @param arr array to be sorted
+     */
+    public static void sort(double[] arr) {
+        final long[] keys = new long[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            keys[i] = toSortableBits(arr[i]);
+        }
+        radixSort(keys, null, Long.SIZE);
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = fromSortableBits(keys[i]);
+        }
+    }
+
+    /**
+     * Returns the indices of the array in the order that sorts it. The array
+     * itself is not modified.
+     *
+     * @param arr array to be ranked
+     * @return permutation p such that arr[p[0]] <= arr[p[1]] <= ...
+     */
+    public static int[] argsort(int[] arr) {
+        final long[] keys = new long[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            keys[i] = Integer.toUnsignedLong(arr[i] ^ Integer.MIN_VALUE);
+        }
+        return argsortKeys(keys, Integer.SIZE);
+    }
+
+    /**
+     * Returns the indices of the array in the order that sorts it. The array
+     * itself is not modified.
+     *
+     * @param arr array to be ranked
+     * @return permutation p such that arr[p[0]] <= arr[p[1]] <= ...
+     */
+    public static int[] argsort(long[] arr) {
+        return argsortKeys(arr.clone(), Long.SIZE);
+    }
+
+    /**
+     * Returns the indices of the array in the order that sorts it, using the total
+     * order of {@link Double#compare}. The array itself is not modified.
+     *
+     * @param arr array to be ranked
+     * @return permutation p such that arr[p[0]] <= arr[p[1]] <= ...
+     */
+    public static int[] argsort(double[] arr) {
+        final long[] keys = new long[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            keys[i] = toSortableBits(arr[i]);
+        }
+        return argsortKeys(keys, Long.SIZE);
+    }
+
+    /**
+     * Maps a double to a long whose signed order matches {@link Double#compare}.
+     * Positive doubles keep their bits; negative doubles have every bit but the
+     * sign flipped, so a larger magnitude gives a smaller long. All NaNs collapse
+     * to the canonical NaN.
+     *
+     * @param d double to be mapped
+     * @return order-preserving long
+     */
+    public static long toSortableBits(double d) {
+        final long bits = Double.doubleToLongBits(d);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Inverse of {@code toSortableBits}.
+     *
+     * @param bits order-preserving long
+     * @return the double it was mapped from
+     */
+    public static double fromSortableBits(long bits) {
+        return Double.longBitsToDouble(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+    }
+
+    private static int[] argsortKeys(long[] keys, int keyBits) {
+        final int[] indices = new int[keys.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        radixSort(keys, indices, keyBits);
+        return indices;
+    }
+
+    /**
+     * The shared kernel. Sorts the keys in place and applies the same permutation
+     * to the payload, if there is one. Each pass is stable, so equal keys keep
+     * their payload order.
+     *
+     * @param keys    keys to be sorted
+     * @param payload values moved along with the keys, or null
+     * @param keyBits number of low bits the keys differ in: 64, or 32 for
+     *                non-negative keys mapped from ints
+     */
+    private static void radixSort(long[] keys, int[] payload, int keyBits) {
+        final int n = keys.length;
+        if (n < 32) {
+            insertionSort(keys, payload);
+            return;
+        }
+        final int bits = n < (1 << 16) ? RadixSort.SMALL_DIGIT_BITS : RadixSort.LARGE_DIGIT_BITS;
+        final int radix = 1 << bits, mask = radix - 1;
+        final int passes = (keyBits + bits - 1) / bits;
+        final int[] counts = new int[passes << bits];
+        for (long e : keys) {
+            final long key = e ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                counts[(pass << bits) + (int) ((key >>> (pass * bits)) & mask)]++;
+            }
+        }
+        long[] src = keys, dst = null;
+        int[] srcPayload = payload, dstPayload = null;
+        for (int pass = 0; pass < passes; pass++) {
+            final int shift = pass * bits, base = pass << bits;
+            if (counts[base + (int) (((src[0] ^ Long.MIN_VALUE) >>> shift) & mask)] == n) {
+                continue;
+            }
+            for (int d = 0, sum = 0; d < radix; d++) {
+                final int count = counts[base + d];
+                counts[base + d] = sum;
+                sum += count;
+            }
+            if (dst == null) {
+                dst = new long[n];
+                dstPayload = payload == null ? null : new int[n];
+            }
+            if (payload == null) {
+                for (long e : src) {
+                    dst[counts[base + (int) (((e ^ Long.MIN_VALUE) >>> shift) & mask)]++] = e;
+                }
+            } else {
+                for (int i = 0; i < n; i++) {
+                    final long e = src[i];
+                    final int pos = counts[base + (int) (((e ^ Long.MIN_VALUE) >>> shift) & mask)]++;
+                    dst[pos] = e;
+                    dstPayload[pos] = srcPayload[i];
+                }
+                int[] temp = srcPayload;
+                srcPayload = dstPayload;
+                dstPayload = temp;
+            }
+            long[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, n);
+            if (payload != null) {
+                System.arraycopy(srcPayload, 0, payload, 0, n);
+            }
+        }
+    }
+
+    private static void insertionSort(long[] keys, int[] payload) {
+        for (int i = 1; i < keys.length; i++) {
+            final long key = keys[i];
+            final int value = payload == null ? 0 : payload[i];
+            int insert = i;
+            while (insert > 0 && key < keys[insert - 1]) {
+                keys[insert] = keys[insert - 1];
+                if (payload != null) {
+                    payload[insert] = payload[insert - 1];
+                }
+                insert--;
+            }
+            keys[insert] = key;
+            if (payload != null) {
+                payload[insert] = value;
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        final int num = 10000000;
+        long[] arr = new long[num];
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < num; i++) {
+            arr[i] = now + (long) (Math.random() * num);
+        }
+        long begin = System.currentTimeMillis();
+        sort(arr);
+        long end = System.currentTimeMillis();
+        System.out.println("Timestamps: " + (end - begin));
+    }
+}
@@ -1,7 +1,15 @@
 import java.util.Arrays;
+import java.util.NoSuchElementException;
 // import java.util.Comparator;
 // import java.util.PriorityQueue;
 
+/**
+ * Binary max-heap of ints, stored from index 1 so the parent of i is i / 2 and
+ * its children are 2i and 2i + 1. Index 0 is unused.
+ *
+ * @see DaryHeap
+ * @see PairingHeap
+ */
 public class PriorityQueue {
     private int[] heap;
     private volatile transient int size;
@@ -13,98 +21,114 @@ public class PriorityQueue {
     }
 
     public PriorityQueue(int capacity) {
-        heap = new int[capacity];
+        heap = new int[capacity + 1];
     }
 
     public PriorityQueue() {
         this(DEFAULT_INITIAL_CAPACITY);
     }
 
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
     public void add(int element) {
         if (size == heap.length - 1) {
-            int[] temp = heap;
-            heap = new int[size << 1];
-            for (int i = 0; i < temp.length; i++) {
-                heap[i] = temp[i];
-            }
+            heap = Arrays.copyOf(heap, Math.max(heap.length << 1, 2));
         }
         size++;
-        heap[size] = element;
         siftUp(element, size);
     }
 
+    /**
+     * Returns the largest element.
+     *
+     * @return largest element
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty queue.");
+        }
+        return heap[1];
+    }
+
+    /**
+     * Removes the largest element.
+     *
+     * @return largest element
+     */
+    public int remove() {
+        final int first = peek();
+        final int last = heap[size--];
+        if (size > 0) {
+            heap[1] = last;
+            siftDown(1, size);
+        }
+        return first;
+    }
+
+    /**
+     * Sorts the elements in O(n log(n)) by swapping the largest element to the
+     * end of the heap and sifting the new root down, once per element. The queue
+     * is left empty.
+     *
+     * @return the backing array, holding the elements in ascending order from
+     *         index 1
+     */
     public int[] heapSort() {
-        int end = size - 1;
-        while (end > 0) {
+        buildHeap();
+        for (int end = size; end > 1; end--) {
             int first = heap[1];
             heap[1] = heap[end];
             heap[end] = first;
-            end--;
-            buildHeap();
+            siftDown(1, end - 1);
         }
+        size = 0;
         return heap;
     }
 
     private void siftUp(int e, int currIndex) {
-        int parentIndex = currIndex >> 1;
-        if (parentIndex > 0) {
-            int p = heap[parentIndex];
-            if (e > p) {
-                heap[parentIndex] = e;
-                heap[currIndex] = p;
-            }
-            siftUp(e, currIndex >> 1);
+        int parentIndex;
+        while ((parentIndex = currIndex >> 1) > 0 && heap[parentIndex] < e) {
+            heap[currIndex] = heap[parentIndex];
+            currIndex = parentIndex;
         }
+        heap[currIndex] = e;
     }
 
+    /**
+     * Restores the heap contract in O(n) by sifting down every parent, from the
+     * last one to the root.
+     */
     public void buildHeap() {
         final int lastNonLeaf = size >> 1;
         for (int i = lastNonLeaf; i > 0; i--) {
-            heapify(i);
+            siftDown(i, size);
         }
     }
 
-    private void heapify(int index) {
-        if (index < size) {
-            int leftIndex = index << 1, rightIndex = (index << 1) + 1;
-            if (leftIndex < size && rightIndex < size) {
-                int next = swapWithTwo(index, leftIndex, rightIndex);
-                if (next != -1) {
-                    heapify(next);
-                }
-            } else if (leftIndex < size) {
-                if (swapWithOne(index, leftIndex)) {
-                    heapify(leftIndex);
-                }
-            } else if (rightIndex < size) {
-                if (swapWithOne(index, rightIndex)) {
-                    heapify(rightIndex);
-                }
+    /**
+     * Sifts the element at index down until its children are no larger,
+     * considering only indices up to end.
+     */
+    private void siftDown(int index, int end) {
+        final int curr = heap[index];
+        int child;
+        while ((child = index << 1) <= end) {
+            if (child < end && heap[child + 1] > heap[child]) {
+                child++;
             }
+            if (heap[child] <= curr) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
         }
-    }
-
-    private int swapWithTwo(int currIndex, int leftIndex, int rightIndex) {
-        int curr = heap[currIndex];
-        int left = heap[leftIndex], right = heap[rightIndex];
-        int max = (left > right) ? left : right;
-        int nextIndex = (max == left) ? leftIndex : rightIndex;
-        if (max > curr) {
-            heap[currIndex] = max;
-            heap[nextIndex] = curr;
-            return nextIndex;
-        }
-        return -1;
-    }
-    
-    private boolean swapWithOne(int currIndex, int childIndex) {
-        int curr = heap[currIndex], child = heap[childIndex];
-        if (child > curr) {
-            heap[currIndex] = child;
-            heap[childIndex] = curr;
-            return true;
-        }
-        return false;
+        heap[index] = curr;
     }
 
     public static void main(String[] args) {
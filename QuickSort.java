@@ -33,6 +33,20 @@ public interface QuickSort {
         }
     }
 
+    /**
+     * Sorts a given array in parallel. Unlike {@code quickSort}, the pivots are
+     * sampled from the whole range and the recursion depth is bounded, so sorted
+     * and reverse-sorted arrays take O(n log(n)) time as well.
+     *
+     * @param arr   array to be sorted
+     * @param start start index of the sorting
+     * @param end   end index of the sorting
+     * @see IntroSort
+     */
+    public static void parallelSort(int[] arr, int start, int end) {
+        IntroSort.parallelSort(arr, start, end);
+    }
+
     /**
      * Iteratively finds the correct position of the pivot. This method may also be
      * recursive, although recursion poses no advantage in this scenario.
@@ -0,0 +1,140 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Monotone min-heap of {@code int} payloads with non-negative {@code long}
+ * keys, for searches such as {@link Dijkstra} in which no key added is ever
+ * smaller than the last key removed. It does not compare keys against each
+ * other; it sorts them into buckets by their highest bit that differs from
+ * the last key removed:
+ * <p>
+ * Bucket 0 holds keys equal to the last key removed, and bucket i holds keys
+ * whose highest differing bit is bit i - 1. Adding puts the key straight into
+ * its bucket. Removing takes from bucket 0, and when it is empty, finds the
+ * smallest key of the first non-empty bucket, makes that the last key and
+ * redistributes the bucket, whose keys all move to lower buckets.
+ * <p>
+ * Since keys only move down, and in Dijkstra every key is within C of the
+ * last key removed, where C is the largest edge weight, each key moves at
+ * most log(C) + 1 times: O(log(C)) amortized per operation, whatever the
+ * number of keys. Buckets are parallel primitive arrays, as in
+ * {@link LongIntHeap}.
+ *
+ * @version 1.0
+ * @see LongIntHeap
+ * @see Dijkstra
+ */
+public class RadixHeap {
+    private static final int BUCKETS = Long.SIZE + 1;
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+    private final long[][] keys = new long[BUCKETS][];
+    private final int[][] values = new int[BUCKETS][];
+    private final int[] sizes = new int[BUCKETS];
+    private long last;
+    private int size;
+
+    public RadixHeap() {
+        for (int b = 0; b < BUCKETS; b++) {
+            keys[b] = new long[INITIAL_BUCKET_CAPACITY];
+            values[b] = new int[INITIAL_BUCKET_CAPACITY];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds an entry to the heap.
+     *
+     * @param key   key of the entry, no smaller than the last key removed
+     * @param value payload of the entry
+     */
+    public void add(long key, int value) {
+        if (key < last) {
+            throw new IllegalArgumentException("Key " + key + " is smaller than the last key " + last);
+        }
+        push(bucket(key), key, value);
+        size++;
+    }
+
+    /**
+     * Returns the smallest key in the heap.
+     *
+     * @return smallest key
+     */
+    public long peekKey() {
+        refill();
+        return last;
+    }
+
+    /**
+     * Returns the payload of the smallest key in the heap.
+     *
+     * @return payload of the smallest key
+     */
+    public int peekValue() {
+        refill();
+        return values[0][sizes[0] - 1];
+    }
+
+    /**
+     * Removes an entry with the smallest key. Read its key with
+     * {@code peekKey()} first if it is needed.
+     *
+     * @return payload of the smallest key
+     */
+    public int remove() {
+        refill();
+        size--;
+        return values[0][--sizes[0]];
+    }
+
+    /**
+     * Makes sure bucket 0 is not empty by redistributing the first non-empty
+     * bucket around its smallest key.
+     */
+    private void refill() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty heap.");
+        }
+        if (sizes[0] > 0) {
+            return;
+        }
+        int b = 1;
+        while (sizes[b] == 0) {
+            b++;
+        }
+        final long[] bucketKeys = keys[b];
+        final int[] bucketValues = values[b];
+        final int count = sizes[b];
+        long min = bucketKeys[0];
+        for (int i = 1; i < count; i++) {
+            min = Math.min(min, bucketKeys[i]);
+        }
+        last = min;
+        sizes[b] = 0;
+        for (int i = 0; i < count; i++) {
+            push(bucket(bucketKeys[i]), bucketKeys[i], bucketValues[i]);
+        }
+    }
+
+    private int bucket(long key) {
+        return Long.SIZE - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void push(int b, long key, int value) {
+        final int n = sizes[b];
+        if (n == keys[b].length) {
+            keys[b] = Arrays.copyOf(keys[b], n << 1);
+            values[b] = Arrays.copyOf(values[b], n << 1);
+        }
+        keys[b][n] = key;
+        values[b][n] = value;
+        sizes[b] = n + 1;
+    }
+}
@@ -1,14 +1,143 @@
 import java.util.Queue;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /**
  * A non-comparison based sorting algorithm that goes through each number in the
  * array from the least significant to most significant digit.
+ * <p>
+ * {@code sort(int[])} and {@code parallelSort(int[])} work on binary digits of
+ * 8 or 11 bits instead of decimal digits. Each pass counts the digits,
+ * prefix-sums the counts into bucket offsets, and scatters the elements into a
+ * single buffer that swaps roles with the array on the next pass. The sign bit
+ * is flipped when extracting digits so that negative numbers sort before
+ * positive ones, and passes in which every element shares the same digit are
+ * skipped entirely.
  * 
  * @author Anwen Hao
  */
 public interface RadixSort {
+    int SMALL_DIGIT_BITS = 8;
+    int LARGE_DIGIT_BITS = 11;
+
+    /**
+     * Sorts a given array in place. Small arrays use 8-bit digits (4 passes) and
+     * large arrays 11-bit digits (3 passes), whose counting array still fits in
+     * the L1 cache.
+     * 
+     * @param nums array to be sorted
+     */
+    public static void sort(int[] nums) {
+        final int n = nums.length;
+        if (n < 2) {
+            return;
+        }
+        final int bits = n < (1 << 16) ? SMALL_DIGIT_BITS : LARGE_DIGIT_BITS;
+        final int radix = 1 << bits, mask = radix - 1;
+        final int passes = (Integer.SIZE + bits - 1) / bits;
+        final int[] counts = new int[passes << bits];
+        for (int e : nums) {
+            final int key = e ^ Integer.MIN_VALUE;
+            for (int pass = 0; pass < passes; pass++) {
+                counts[(pass << bits) + ((key >>> (pass * bits)) & mask)]++;
+            }
+        }
+        int[] src = nums, dst = null;
+        for (int pass = 0; pass < passes; pass++) {
+            final int shift = pass * bits, base = pass << bits;
+            if (counts[base + (((src[0] ^ Integer.MIN_VALUE) >>> shift) & mask)] == n) {
+                continue;
+            }
+            for (int d = 0, sum = 0; d < radix; d++) {
+                final int count = counts[base + d];
+                counts[base + d] = sum;
+                sum += count;
+            }
+            if (dst == null) {
+                dst = new int[n];
+            }
+            for (int e : src) {
+                dst[counts[base + (((e ^ Integer.MIN_VALUE) >>> shift) & mask)]++] = e;
+            }
+            int[] temp = src;
+            src = dst;
+            dst = temp;
+        }
+        if (src != nums) {
+            System.arraycopy(src, 0, nums, 0, n);
+        }
+    }
+
+    /**
+     * Sorts a given array in place on the common {@link ForkJoinPool}. The array
+     * is cut into chunks that count their digits in parallel; the per-chunk counts
+     * are then prefix-summed in digit-major order, which gives every chunk its own
+     * write positions, so the chunks also scatter in parallel and the sort stays
+     * stable.
+     * 
+     * @param nums array to be sorted
+     */
+    public static void parallelSort(int[] nums) {
+        final int n = nums.length;
+        final int chunks = Math.min(ForkJoinPool.getCommonPoolParallelism() << 2, n >> 16);
+        if (chunks < 2) {
+            sort(nums);
+            return;
+        }
+        final int bits = LARGE_DIGIT_BITS, radix = 1 << bits, mask = radix - 1;
+        final int passes = (Integer.SIZE + bits - 1) / bits;
+        final int[][] offsets = new int[chunks][];
+        int[] src = nums, dst = null;
+        for (int pass = 0; pass < passes; pass++) {
+            final int shift = pass * bits;
+            final int[] from = src;
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                final int[] counts = new int[radix];
+                for (int i = chunkStart(c, chunks, n), end = chunkStart(c + 1, chunks, n); i < end; i++) {
+                    counts[((from[i] ^ Integer.MIN_VALUE) >>> shift) & mask]++;
+                }
+                offsets[c] = counts;
+            });
+            final int first = ((from[0] ^ Integer.MIN_VALUE) >>> shift) & mask;
+            int total = 0;
+            for (int[] counts : offsets) {
+                total += counts[first];
+            }
+            if (total == n) {
+                continue;
+            }
+            for (int d = 0, sum = 0; d < radix; d++) {
+                for (int[] counts : offsets) {
+                    final int count = counts[d];
+                    counts[d] = sum;
+                    sum += count;
+                }
+            }
+            if (dst == null) {
+                dst = new int[n];
+            }
+            final int[] to = dst;
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                final int[] next = offsets[c];
+                for (int i = chunkStart(c, chunks, n), end = chunkStart(c + 1, chunks, n); i < end; i++) {
+                    final int e = from[i];
+                    to[next[((e ^ Integer.MIN_VALUE) >>> shift) & mask]++] = e;
+                }
+            });
+            src = to;
+            dst = from;
+        }
+        if (src != nums) {
+            System.arraycopy(src, 0, nums, 0, n);
+        }
+    }
+
+    private static int chunkStart(int chunk, int chunks, int n) {
+        return (int) ((long) chunk * n / chunks);
+    }
+
     public static int[] sort(int[] nums, int digits) {
         for (int i = 0; i < digits; i++) {
             List<Queue<Integer>> buckets = itemsToQueues(nums, i);
@@ -57,9 +186,14 @@ public interface RadixSort {
         for (int i = 0; i < num; i++) {
             arr[i] = (int) (Math.random() * num);
         }
+        int[] copy = arr.clone();
         long begin = System.currentTimeMillis();
         arr = sort(arr, 3);
         long end = System.currentTimeMillis();
-        System.out.println(end - begin);
+        System.out.println("Decimal: " + (end - begin));
+        begin = System.currentTimeMillis();
+        parallelSort(copy);
+        end = System.currentTimeMillis();
+        System.out.println("Binary: " + (end - begin));
     }
 }
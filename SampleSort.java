@@ -0,0 +1,204 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Parallel sample sort for many-core machines. A parallel QuickSort (see
+ * {@link IntroSort}) partitions its first range on a single thread, which caps
+ * its speedup. Sample sort partitions into many buckets at once and does all
+ * of it in parallel:
+ * <p>
+ * Oversample: a random sample of the array is sorted, and every
+ * {@code OVERSAMPLING}-th element of it becomes a splitter. Splitters are
+ * stored as an implicit binary search tree, so an element finds its bucket in
+ * log(buckets) steps without branching on the outcome.
+ * <p>
+ * Classify: every thread classifies its own chunk of the array, remembering
+ * each element's bucket and counting the bucket sizes in a counter array of
+ * its own. If the sample repeats a splitter, the array has a value common
+ * enough to fill buckets of its own, so every splitter also gets an equality
+ * bucket for the elements equal to it, which needs no sorting. Few distinct
+ * values, or a single one, then still spread over many tasks instead of
+ * piling into a few buckets sorted serially.
+ * <p>
+ * Scatter: the counts are prefix-summed in bucket-major order, which gives
+ * every chunk its own write positions in every bucket, so the chunks copy
+ * their elements into a single destination buffer in parallel.
+ * <p>
+ * Sort: the buckets no longer depend on each other, so each one is sorted by
+ * IntroSort as an independent task and copied back; equality buckets are only
+ * copied back.
+ *
+ * @version 1.0
+ * @see IntroSort
+ * @see QuickSort
+ */
+public class SampleSort {
+    private static final int MIN_PARALLEL_SIZE = 1 << 16;
+    private static final int OVERSAMPLING = 32;
+    private static final int MAX_BUCKETS = 1 << 10;
+
+    /**
+     * Sorts a given array on the common {@link ForkJoinPool}.
+     *
+     * @param arr array to be sorted
+     */
+    public static void parallelSort(int[] arr) {
+        parallelSort(arr, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts a given array on a given pool. There are four buckets per thread of
+     * the pool, so that threads finishing early can pick up more work. A pool
+     * of one thread runs the same algorithm, so that it is the baseline of the
+     * speedup; only arrays too small to be worth splitting go to IntroSort.
+     *
+     * @param arr  array to be sorted
+     * @param pool pool running the sort
+     */
+    public static void parallelSort(int[] arr, ForkJoinPool pool) {
+        final int n = arr.length, threads = pool.getParallelism();
+        if (n < MIN_PARALLEL_SIZE) {
+            IntroSort.sort(arr, 0, n - 1);
+            return;
+        }
+        final int buckets = Math.min(MAX_BUCKETS, Integer.highestOneBit((threads << 2) - 1) << 1);
+        final int levels = Integer.numberOfTrailingZeros(buckets);
+        final int[] splitters = splitters(arr, buckets);
+        final int[] tree = new int[buckets];
+        fill(tree, splitters, 1, 0);
+        final boolean equalBuckets = hasDuplicates(splitters);
+        final int classes = equalBuckets ? buckets << 1 : buckets;
+        final int chunks = threads << 1;
+        final short[] oracle = new short[n];
+        final int[][] offsets = new int[chunks][];
+        forEach(pool, chunks, c -> {
+            final int[] counts = new int[classes];
+            for (int i = chunkStart(c, chunks, n), end = chunkStart(c + 1, chunks, n); i < end; i++) {
+                final int e = arr[i];
+                int node = 1;
+                for (int level = 0; level < levels; level++) {
+                    node = (node << 1) | (e > tree[node] ? 1 : 0);
+                }
+                int b = node - buckets;
+                if (equalBuckets) {
+                    b = (b << 1) | (b < buckets - 1 && e == splitters[b] ? 1 : 0);
+                }
+                oracle[i] = (short) b;
+                counts[b]++;
+            }
+            offsets[c] = counts;
+        });
+        final int[] bucketStart = new int[classes + 1];
+        for (int b = 0, sum = 0; b < classes; b++) {
+            bucketStart[b] = sum;
+            for (int[] counts : offsets) {
+                final int count = counts[b];
+                counts[b] = sum;
+                sum += count;
+            }
+        }
+        bucketStart[classes] = n;
+        final int[] dst = new int[n];
+        forEach(pool, chunks, c -> {
+            final int[] next = offsets[c];
+            for (int i = chunkStart(c, chunks, n), end = chunkStart(c + 1, chunks, n); i < end; i++) {
+                dst[next[oracle[i]]++] = arr[i];
+            }
+        });
+        forEach(pool, classes, b -> {
+            final int from = bucketStart[b], to = bucketStart[b + 1];
+            if (!equalBuckets || (b & 1) == 0) {
+                IntroSort.sort(dst, from, to - 1);
+            }
+            System.arraycopy(dst, from, arr, from, to - from);
+        });
+    }
+
+    /**
+     * Chooses buckets - 1 splitters, in order, from a sorted random sample.
+     */
+    private static int[] splitters(int[] arr, int buckets) {
+        final SplittableRandom random = new SplittableRandom(arr.length);
+        final int[] sample = new int[buckets * OVERSAMPLING];
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = arr[random.nextInt(arr.length)];
+        }
+        IntroSort.sort(sample, 0, sample.length - 1);
+        final int[] splitters = new int[buckets - 1];
+        for (int i = 0; i < splitters.length; i++) {
+            splitters[i] = sample[(i + 1) * OVERSAMPLING - 1];
+        }
+        return splitters;
+    }
+
+    private static boolean hasDuplicates(int[] splitters) {
+        for (int i = 1; i < splitters.length; i++) {
+            if (splitters[i - 1] == splitters[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fills the subtree rooted at node with splitters in order, making an
+     * implicit search tree: the children of node j are 2j and 2j + 1.
+     *
+     * @return index of the next splitter to place
+     */
+    private static int fill(int[] tree, int[] splitters, int node, int next) {
+        if (node < tree.length) {
+            next = fill(tree, splitters, node << 1, next);
+            tree[node] = splitters[next++];
+            next = fill(tree, splitters, (node << 1) + 1, next);
+        }
+        return next;
+    }
+
+    private static int chunkStart(int chunk, int chunks, int n) {
+        return (int) ((long) chunk * n / chunks);
+    }
+
+    /**
+     * Runs the task once for every id in {@code [0, tasks)} on the pool and waits
+     * for all of them.
+     */
+    private static void forEach(ForkJoinPool pool, int tasks, IntConsumer task) {
+        List<Callable<Void>> calls = new ArrayList<>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            final int id = t;
+            calls.add(() -> {
+                task.accept(id);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(calls)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sorting.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to sort.", e.getCause());
+        }
+    }
+
+    public static void main(String[] args) {
+        final int num = 10000000;
+        int[] arr = new int[num];
+        for (int i = 0; i < num; i++) {
+            arr[i] = (int) (Math.random() * Integer.MAX_VALUE);
+        }
+        long begin = System.currentTimeMillis();
+        parallelSort(arr);
+        long end = System.currentTimeMillis();
+        System.out.println("SampleSort: " + (end - begin));
+    }
+}
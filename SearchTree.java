@@ -1,5 +1,7 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.LinkedList;
+import java.util.Deque;
 import java.util.List;
 
 /**
@@ -11,10 +13,17 @@ import java.util.List;
  * this SearchTree data structure, although SearchTree's main purpose is to find
  * elements quickly. Heap is another type of binary tree, although its
  * restrictions are not as rigid as SearchTree's.
+ * <p>
+ * Adding, searching and sorting are iterative, so a degenerate tree (keys
+ * added in order) is slow but never overflows the stack. By default keys are
+ * compared by value: integral keys as longs and any others as doubles.
+ * {@link LongSearchTree} stores primitive {@code long} keys and adds removal
+ * and range queries.
  * @see Node
  * @see Heap
+ * @see LongSearchTree
  * @author Anwen Hao
- * @version 1.2
+ * @version 1.3
  * @param <K> key, may be any number
  * @param <V> value, may be any data type
  * @since 1.0
@@ -40,7 +49,10 @@ public class SearchTree<K extends Number, V> {
     private final Node root;
     private final Comparator<? super K> comparator;
     private static final Comparator<Number> DEFAULT_COMPARATOR = (x, y) -> {
-        return (int) x - (int) y;
+        if (isIntegral(x) && isIntegral(y)) {
+            return Long.compare(x.longValue(), y.longValue());
+        }
+        return Double.compare(x.doubleValue(), y.doubleValue());
     };
 
     public SearchTree(K key, V value) {
@@ -52,72 +64,77 @@ public class SearchTree<K extends Number, V> {
         this.comparator = comparator;
     }
 
-    public Node add(K newKey, V newValue) {
-        return add(root, newKey, newValue);
-    }
-
     /**
-     * Adds an element to the tree according to the contract.
+     * Adds an element to the tree according to the contract. A key that is
+     * already in the tree keeps its value.
      * 
-     * @param oldNode the current node/target of the addition
-     * @param newKey  the key of the added node
-     * @return the new node in its correct position
+     * @param newKey   the key of the added node
+     * @param newValue the value of the added node
+     * @return the root of the tree
      */
-    private Node add(Node oldNode, K newKey, V newValue) {
-        if (oldNode == null) {
-            return new Node(newKey, newValue);
-        }
-        if (comparator.compare(newKey, oldNode.key) < 0) {
-            oldNode.left = add(oldNode.left, newKey, newValue);
-        } else if (comparator.compare(newKey, oldNode.key) > 0) {
-            oldNode.right = add(oldNode.right, newKey, newValue);
+    public Node add(K newKey, V newValue) {
+        Node current = root;
+        while (true) {
+            final int c = comparator.compare(newKey, current.key);
+            if (c == 0) {
+                return root;
+            }
+            final Node next = c < 0 ? current.left : current.right;
+            if (next == null) {
+                if (c < 0) {
+                    current.left = new Node(newKey, newValue);
+                } else {
+                    current.right = new Node(newKey, newValue);
+                }
+                return root;
+            }
+            current = next;
         }
-        return oldNode;
-    }
-
-    public List<K> sort() {
-        List<K> l = new LinkedList<>();
-        searchTreeSort(root, l);
-        return l;
     }
 
     /**
-     * Recursive definition to scan and capture all elements of tree, sorting the
-     * keys in the process.
+     * Scans all elements of the tree in order, sorting the keys in the process.
+     * The traversal keeps its own stack of the nodes whose right subtrees are
+     * still to be visited.
      * 
-     * @param root the start position of traversal
      * @return sorted list of keys
      */
-    private void searchTreeSort(Node root, List<K> keys) {
-        if (root != null) {
-            searchTreeSort(root.left, keys);
-            keys.add(root.key);
-            searchTreeSort(root.right, keys);
+    public List<K> sort() {
+        List<K> keys = new ArrayList<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        Node current = root;
+        while (current != null || !stack.isEmpty()) {
+            while (current != null) {
+                stack.push(current);
+                current = current.left;
+            }
+            current = stack.pop();
+            keys.add(current.key);
+            current = current.right;
         }
-    }
-
-    public V get(K key) {
-        return get(root, key);
+        return keys;
     }
 
     /**
      * Retrieves Node value while traversing tree. Takes Log(n) time to find Node,
      * where n is the number of Nodes.
      * 
-     * @param current the node the key is being compared to (one can think of this
-     *                as the starting point of the search)
-     * @param key     the key to be found
-     * @return true if there is the element in the tree
+     * @param key the key to be found
+     * @return the value of the key, or null if it is not in the tree
      */
-    private V get(Node current, K key) {
-        if (current == null) {
-            return null;
-        }
-        if (key.equals(current.key)) {
-            return current.value;
+    public V get(K key) {
+        Node current = root;
+        while (current != null) {
+            final int c = comparator.compare(key, current.key);
+            if (c == 0) {
+                return current.value;
+            }
+            current = c < 0 ? current.left : current.right;
         }
-        return comparator.compare(key, current.key) < 0 
-            ? get(current.left, key) 
-            : get(current.right, key);
+        return null;
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte;
     }
-}
\ No newline at end of file
+}
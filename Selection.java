@@ -0,0 +1,385 @@
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Selection of the k-th smallest element and partial sorting, for when only
+ * the top of an array matters and sorting the whole array with
+ * {@link QuickSort} would waste O(n log(n)) time.
+ * <p>
+ * Selection is introselect: QuickSort's partitioning, but only the side that
+ * holds rank k is kept, so the expected time is linear. The partition is
+ * three-way, so runs of equal keys (ties in a leaderboard, for example) are
+ * settled in one pass instead of being partitioned again and again. Pivots are
+ * medians of three, but a round is unbalanced when it keeps more than 3/4 of
+ * its range, and after {@code UNBALANCED_ROUNDS} unbalanced rounds in a row
+ * the next pivot is the median of medians of groups of five, which keeps at
+ * most about 70% of the range. So every few rounds of linear work shrink the
+ * range by a constant factor, which guarantees linear time in the worst case,
+ * even for inputs built to defeat medians of three.
+ * <p>
+ * Doubles are ordered as in {@link Double#compare}, like {@link PrimitiveSort}.
+ * 
+ * @version 1.0
+ * @see QuickSort
+ * @see PrimitiveSort
+ */
+public interface Selection {
+    int SMALL_RANGE = 16;
+    int UNBALANCED_ROUNDS = 2;
+
+    /**
+     * Returns the k-th smallest element (counting from 0) in expected linear time.
+     * The array is rearranged so that arr[k] holds that element, everything
+     * before it is no larger and everything after it is no smaller.
+     * 
+     * @param arr array to select from
+     * @param k   rank of the element, from 0 to arr.length - 1
+     * @return the k-th smallest element
+     */
+    public static int select(int[] arr, int k) {
+        Objects.checkIndex(k, arr.length);
+        select(arr, 0, arr.length - 1, k);
+        return arr[k];
+    }
+
+    /**
+     * Moves the k smallest elements to the front of the array in sorted order.
+     * The order of the rest of the array is unspecified.
+     * 
+     * @param arr array to be partially sorted
+     * @param k   number of elements to sort, from 0 to arr.length
+     */
+    public static void partialSort(int[] arr, int k) {
+        Objects.checkFromToIndex(0, k, arr.length);
+        if (k == 0) {
+            return;
+        }
+        if (k < arr.length) {
+            select(arr, 0, arr.length - 1, k - 1);
+        }
+        IntroSort.sort(arr, 0, k - 1);
+    }
+
+    /**
+     * Returns the k smallest elements in sorted order without modifying the array.
+     * 
+     * @param arr array to select from
+     * @param k   number of elements to return, from 0 to arr.length
+     * @return sorted array of the k smallest elements
+     */
+    public static int[] smallest(int[] arr, int k) {
+        int[] copy = arr.clone();
+        partialSort(copy, k);
+        return Arrays.copyOf(copy, k);
+    }
+
+    private static void select(int[] arr, int low, int high, int k) {
+        int unbalanced = 0;
+        while (high - low >= SMALL_RANGE) {
+            final int size = high - low + 1;
+            final int pivot;
+            if (unbalanced < UNBALANCED_ROUNDS) {
+                pivot = median(arr[low], arr[(low + high) >>> 1], arr[high]);
+            } else {
+                pivot = medianOfMedians(arr, low, high);
+            }
+            int lt = low, gt = high, i = low;
+            while (i <= gt) {
+                final int e = arr[i];
+                if (e < pivot) {
+                    arr[i] = arr[lt];
+                    arr[lt] = e;
+                    lt++;
+                    i++;
+                } else if (pivot < e) {
+                    arr[i] = arr[gt];
+                    arr[gt] = e;
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return;
+            }
+            unbalanced = high - low + 1 > size - (size >> 2) ? unbalanced + 1 : 0;
+        }
+        InsertionSort.sort(arr, low, high);
+    }
+
+    /**
+     * Median of the medians of groups of five, which is guaranteed to have at
+     * least 30% of the range on either side of it.
+     */
+    private static int medianOfMedians(int[] arr, int low, int high) {
+        int groups = 0;
+        for (int g = low; g <= high; g += 5) {
+            final int end = Math.min(g + 4, high);
+            InsertionSort.sort(arr, g, end);
+            final int median = (g + end) >>> 1;
+            final int temp = arr[low + groups];
+            arr[low + groups] = arr[median];
+            arr[median] = temp;
+            groups++;
+        }
+        final int mid = low + ((groups - 1) >>> 1);
+        select(arr, low, low + groups - 1, mid);
+        return arr[mid];
+    }
+
+    private static int median(int a, int b, int c) {
+        if (b < a) {
+            final int temp = a;
+            a = b;
+            b = temp;
+        }
+        if (c < b) {
+            b = c < a ? a : c;
+        }
+        return b;
+    }
+
+    /**
+     * Long version of {@code select(int[] arr, int k)}.
+     */
+    public static long select(long[] arr, int k) {
+        Objects.checkIndex(k, arr.length);
+        select(arr, 0, arr.length - 1, k);
+        return arr[k];
+    }
+
+    /**
+     * Long version of {@code partialSort(int[] arr, int k)}.
+     */
+    public static void partialSort(long[] arr, int k) {
+        Objects.checkFromToIndex(0, k, arr.length);
+        if (k == 0) {
+            return;
+        }
+        if (k < arr.length) {
+            select(arr, 0, arr.length - 1, k - 1);
+        }
+        Arrays.sort(arr, 0, k);
+    }
+
+    /**
+     * Long version of {@code smallest(int[] arr, int k)}.
+     */
+    public static long[] smallest(long[] arr, int k) {
+        long[] copy = arr.clone();
+        partialSort(copy, k);
+        return Arrays.copyOf(copy, k);
+    }
+
+    private static void select(long[] arr, int low, int high, int k) {
+        int unbalanced = 0;
+        while (high - low >= SMALL_RANGE) {
+            final int size = high - low + 1;
+            final long pivot;
+            if (unbalanced < UNBALANCED_ROUNDS) {
+                pivot = median(arr[low], arr[(low + high) >>> 1], arr[high]);
+            } else {
+                pivot = medianOfMedians(arr, low, high);
+            }
+            int lt = low, gt = high, i = low;
+            while (i <= gt) {
+                final long e = arr[i];
+                if (e < pivot) {
+                    arr[i] = arr[lt];
+                    arr[lt] = e;
+                    lt++;
+                    i++;
+                } else if (pivot < e) {
+                    arr[i] = arr[gt];
+                    arr[gt] = e;
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return;
+            }
+            unbalanced = high - low + 1 > size - (size >> 2) ? unbalanced + 1 : 0;
+        }
+        insertionSort(arr, low, high);
+    }
+
+    /**
+     * Median of the medians of groups of five, which is guaranteed to have at
+     * least 30% of the range on either side of it.
+     */
+    private static long medianOfMedians(long[] arr, int low, int high) {
+        int groups = 0;
+        for (int g = low; g <= high; g += 5) {
+            final int end = Math.min(g + 4, high);
+            insertionSort(arr, g, end);
+            final int median = (g + end) >>> 1;
+            final long temp = arr[low + groups];
+            arr[low + groups] = arr[median];
+            arr[median] = temp;
+            groups++;
+        }
+        final int mid = low + ((groups - 1) >>> 1);
+        select(arr, low, low + groups - 1, mid);
+        return arr[mid];
+    }
+
+    private static long median(long a, long b, long c) {
+        if (b < a) {
+            final long temp = a;
+            a = b;
+            b = temp;
+        }
+        if (c < b) {
+            b = c < a ? a : c;
+        }
+        return b;
+    }
+
+    /**
+     * Double version of {@code select(int[] arr, int k)}.
+     */
+    public static double select(double[] arr, int k) {
+        Objects.checkIndex(k, arr.length);
+        select(arr, 0, arr.length - 1, k);
+        return arr[k];
+    }
+
+    /**
+     * Double version of {@code partialSort(int[] arr, int k)}.
+     */
+    public static void partialSort(double[] arr, int k) {
+        Objects.checkFromToIndex(0, k, arr.length);
+        if (k == 0) {
+            return;
+        }
+        if (k < arr.length) {
+            select(arr, 0, arr.length - 1, k - 1);
+        }
+        Arrays.sort(arr, 0, k);
+    }
+
+    /**
+     * Double version of {@code smallest(int[] arr, int k)}.
+     */
+    public static double[] smallest(double[] arr, int k) {
+        double[] copy = arr.clone();
+        partialSort(copy, k);
+        return Arrays.copyOf(copy, k);
+    }
+
+    private static void select(double[] arr, int low, int high, int k) {
+        int unbalanced = 0;
+        while (high - low >= SMALL_RANGE) {
+            final int size = high - low + 1;
+            final double pivot;
+            if (unbalanced < UNBALANCED_ROUNDS) {
+                pivot = median(arr[low], arr[(low + high) >>> 1], arr[high]);
+            } else {
+                pivot = medianOfMedians(arr, low, high);
+            }
+            int lt = low, gt = high, i = low;
+            while (i <= gt) {
+                final double e = arr[i];
+                if (Double.compare(e, pivot) < 0) {
+                    arr[i] = arr[lt];
+                    arr[lt] = e;
+                    lt++;
+                    i++;
+                } else if (Double.compare(pivot, e) < 0) {
+                    arr[i] = arr[gt];
+                    arr[gt] = e;
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return;
+            }
+            unbalanced = high - low + 1 > size - (size >> 2) ? unbalanced + 1 : 0;
+        }
+        insertionSort(arr, low, high);
+    }
+
+    /**
+     * Median of the medians of groups of five, which is guaranteed to have at
+     * least 30% of the range on either side of it.
+     */
+    private static double medianOfMedians(double[] arr, int low, int high) {
+        int groups = 0;
+        for (int g = low; g <= high; g += 5) {
+            final int end = Math.min(g + 4, high);
+            insertionSort(arr, g, end);
+            final int median = (g + end) >>> 1;
+            final double temp = arr[low + groups];
+            arr[low + groups] = arr[median];
+            arr[median] = temp;
+            groups++;
+        }
+        final int mid = low + ((groups - 1) >>> 1);
+        select(arr, low, low + groups - 1, mid);
+        return arr[mid];
+    }
+
+    private static double median(double a, double b, double c) {
+        if (Double.compare(b, a) < 0) {
+            final double temp = a;
+            a = b;
+            b = temp;
+        }
+        if (Double.compare(c, b) < 0) {
+            b = Double.compare(c, a) < 0 ? a : c;
+        }
+        return b;
+    }
+
+    private static void insertionSort(long[] arr, int start, int end) {
+        for (int i = start + 1; i <= end; i++) {
+            final long key = arr[i];
+            int insert = i;
+            while (insert > start && key < arr[insert - 1]) {
+                arr[insert] = arr[insert - 1];
+                insert--;
+            }
+            arr[insert] = key;
+        }
+    }
+
+    private static void insertionSort(double[] arr, int start, int end) {
+        for (int i = start + 1; i <= end; i++) {
+            final double key = arr[i];
+            int insert = i;
+            while (insert > start && Double.compare(key, arr[insert - 1]) < 0) {
+                arr[insert] = arr[insert - 1];
+                insert--;
+            }
+            arr[insert] = key;
+        }
+    }
+
+    public static void main(String[] args) {
+        final int num = 50000000, top = 100;
+        int[] scores = new int[num];
+        for (int i = 0; i < num; i++) {
+            scores[i] = (int) (Math.random() * Integer.MAX_VALUE);
+        }
+        long begin = System.currentTimeMillis();
+        int threshold = select(scores, num - top);
+        long end = System.currentTimeMillis();
+        System.out.println("Top " + top + " threshold " + threshold + ": " + (end - begin));
+    }
+}
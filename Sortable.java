@@ -1,4 +1,28 @@
 @FunctionalInterface
 public interface Sortable<G> {
     public G[] sort(int start, G[] arr);
+
+    /**
+     * Sorts an {@code int[]} in place without boxing.
+     */
+    @FunctionalInterface
+    public interface OfInt {
+        public void sort(int[] arr);
+    }
+
+    /**
+     * Sorts a {@code long[]} in place without boxing.
+     */
+    @FunctionalInterface
+    public interface OfLong {
+        public void sort(long[] arr);
+    }
+
+    /**
+     * Sorts a {@code double[]} in place without boxing.
+     */
+    @FunctionalInterface
+    public interface OfDouble {
+        public void sort(double[] arr);
+    }
 }
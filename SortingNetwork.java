@@ -0,0 +1,90 @@
+import java.util.Arrays;
+
+/**
+ * Branch-free sorting networks for small ranges, the base case of the
+ * recursive sorts. A sorting network is a fixed sequence of compare-exchange
+ * steps that sorts any input, so unlike {@link InsertionSort} there are no
+ * data-dependent branches to mispredict: every step is a min and a max.
+ * <p>
+ * The networks are Batcher's odd-even merge sorts. Batcher's construction
+ * works for powers of two; a range of any other length is treated as if it
+ * were padded with infinities, and because every comparator moves the smaller
+ * value to the lower index, comparators that touch the padding never move
+ * anything and are simply left out. The network for every length up to
+ * {@code MAX_SIZE} is computed once and stored as pairs of indices.
+ *
+ * @version 1.0
+ * @see InsertionSort
+ */
+public final class SortingNetwork {
+    public static final int MAX_SIZE = 64;
+    private static final int[][] NETWORKS = new int[MAX_SIZE + 1][];
+
+    static {
+        for (int n = 0; n <= MAX_SIZE; n++) {
+            NETWORKS[n] = build(n);
+        }
+    }
+
+    private SortingNetwork() {
+    }
+
+    /**
+     * Sorts the inclusive range {@code [start, end]} of the array, which must hold
+     * at most {@code MAX_SIZE} elements.
+     *
+     * @param arr   array to be sorted
+     * @param start start index of the sorting
+     * @param end   end index of the sorting
+     * @throws IllegalArgumentException if the range is longer than MAX_SIZE
+     */
+    public static void sort(int[] arr, int start, int end) {
+        final int n = end - start + 1;
+        if (n > MAX_SIZE) {
+            throw new IllegalArgumentException("Range too long for a sorting network: " + n);
+        }
+        if (n < 2) {
+            return;
+        }
+        final int[] pairs = NETWORKS[n];
+        for (int c = 0; c < pairs.length; c += 2) {
+            final int i = start + pairs[c], j = start + pairs[c + 1];
+            final int a = arr[i], b = arr[j];
+            arr[i] = Math.min(a, b);
+            arr[j] = Math.max(a, b);
+        }
+    }
+
+    /**
+     * Lists the comparators of Batcher's odd-even merge sort for n elements.
+     */
+    private static int[] build(int n) {
+        int[] pairs = new int[0];
+        int count = 0;
+        for (int p = 1; p < n; p <<= 1) {
+            for (int k = p; k >= 1; k >>= 1) {
+                for (int j = k % p; j + k < n; j += k << 1) {
+                    for (int i = 0; i < k && i + j + k < n; i++) {
+                        if ((i + j) / (p << 1) == (i + j + k) / (p << 1)) {
+                            if (count == pairs.length) {
+                                pairs = Arrays.copyOf(pairs, Math.max(16, count << 1));
+                            }
+                            pairs[count++] = i + j;
+                            pairs[count++] = i + j + k;
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(pairs, count);
+    }
+
+    public static void main(String[] args) {
+        int[] arr = new int[MAX_SIZE];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = (int) (Math.random() * 100);
+        }
+        sort(arr, 0, arr.length - 1);
+        System.out.println(Arrays.toString(arr));
+    }
+}
@@ -1,3 +1,9 @@
+/**
+ * Quick wall-clock comparison of the sorts on uniform random input. Useful as a
+ * smoke test only: there is no warmup and no protection from dead code
+ * elimination. Use {@code benchmarks/SortingBenchmark} to measure and catch
+ * regressions.
+ */
 public interface SortingTimeComplexity {
     public static void main(String[] args) {
         System.out.println("Starting Tester...\f");
@@ -0,0 +1,521 @@
+import java.util.Comparator;
+
+/**
+ * Adaptive, stable merge sort for nearly-sorted input, designed by Tim Peters
+ * for Python's {@code list.sort} and described in {@code listsort.txt} of the
+ * CPython sources. Instead of splitting the array blindly like
+ * {@link MergeSort}, TimSort scans it for natural runs: maximal ascending
+ * stretches, or strictly descending stretches, which are reversed in place.
+ * Runs shorter than a minimum length are extended with
+ * {@code InsertionSort.binarySort}. The runs are pushed on a stack whose
+ * lengths are kept growing like the Fibonacci numbers, so merges stay
+ * balanced. The rule is checked one run deeper than in listsort.txt, which de
+ * Gouw et al. showed is needed for it to hold everywhere on the stack.
+ * <p>
+ * Merging gallops: once one run has won several comparisons in a row, the
+ * merge stops comparing element by element and searches for the end of the
+ * winning stretch exponentially, copying it at once. An array made of a few
+ * long runs is therefore sorted in close to linear time, and an already sorted
+ * array in exactly n - 1 comparisons.
+ * <p>
+ * The run stack and merging are written once, in {@code Runs}, in terms of
+ * element positions; the int and object sorts only supply comparisons and
+ * copies. A merge first trims the elements of both runs that are already in
+ * place, then copies the shorter run to the buffer and merges from its side:
+ * from the left if it is the left run, from the right otherwise. The buffer
+ * therefore never holds more than half the array, and a long sorted prefix
+ * merged with a short tail copies only the tail.
+ *
+ * @version 1.1
+ * @see MergeSort
+ * @see InsertionSort
+ */
+public class TimSort {
+    private static final int MIN_MERGE = 32;
+    private static final int MIN_GALLOP = 7;
+    private static final int MAX_STACK = 49; // run lengths grow like the Fibonacci numbers
+
+    /**
+     * Sorts a given array.
+     *
+     * @param arr array to be sorted
+     */
+    public static void sort(int[] arr) {
+        new IntRuns(arr).sort();
+    }
+
+    /**
+     * Sorts a given array of objects. Equal elements keep their relative order.
+     *
+     * @param arr        array to be sorted
+     * @param comparator order of the elements
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        new ObjectRuns<>(arr, comparator).sort();
+    }
+
+    /**
+     * Returns the smallest run length that splits n into a power of two number of
+     * runs (or slightly fewer), each between MIN_MERGE / 2 and MIN_MERGE long.
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= (n & 1);
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * Run detection, the stack of pending runs and merging, for any element type.
+     * Elements are named by their index and by whether they are in the array
+     * being sorted or in the buffer; {@code inBuffer} flags are constant at every
+     * call site.
+     */
+    private abstract static class Runs {
+        private final int length;
+        private final int[] runBase = new int[MAX_STACK], runLen = new int[MAX_STACK];
+        private int stackSize, minGallop = MIN_GALLOP;
+
+        protected Runs(int length) {
+            this.length = length;
+        }
+
+        /**
+         * Compares element i with element j, like a comparator.
+         */
+        protected abstract int compare(boolean iInBuffer, int i, boolean jInBuffer, int j);
+
+        /**
+         * Copies an element into the array.
+         */
+        protected abstract void move(boolean fromBuffer, int from, int to);
+
+        /**
+         * Copies a range of elements into the array, which may overlap.
+         */
+        protected abstract void copy(boolean fromBuffer, int from, int to, int len);
+
+        /**
+         * Copies a range of the array to the start of the buffer, growing it first
+         * if needed.
+         */
+        protected abstract void save(int from, int len);
+
+        protected abstract void swap(int i, int j);
+
+        /**
+         * Binary insertion sort of {@code [lo, hi)} whose prefix up to start is
+         * sorted.
+         */
+        protected abstract void binarySort(int lo, int hi, int start);
+
+        final void sort() {
+            int lo = 0, remaining = length;
+            if (remaining < 2) {
+                return;
+            }
+            if (remaining < MIN_MERGE) {
+                binarySort(0, remaining, runLength(0, remaining));
+                return;
+            }
+            final int minRun = minRunLength(remaining);
+            do {
+                int len = runLength(lo, lo + remaining);
+                if (len < minRun) {
+                    final int force = Math.min(remaining, minRun);
+                    binarySort(lo, lo + force, lo + len);
+                    len = force;
+                }
+                runBase[stackSize] = lo;
+                runLen[stackSize++] = len;
+                collapse();
+                lo += len;
+                remaining -= len;
+            } while (remaining != 0);
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Returns the length of the run starting at lo, reversing it first if it is
+         * strictly descending. Descending runs must be strict to keep the sort
+         * stable.
+         */
+        private int runLength(int lo, int hi) {
+            int runHi = lo + 1;
+            if (runHi == hi) {
+                return 1;
+            }
+            if (compare(false, runHi++, false, lo) < 0) {
+                while (runHi < hi && compare(false, runHi, false, runHi - 1) < 0) {
+                    runHi++;
+                }
+                for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                    swap(i, j);
+                }
+            } else {
+                while (runHi < hi && compare(false, runHi, false, runHi - 1) >= 0) {
+                    runHi++;
+                }
+            }
+            return runHi - lo;
+        }
+
+        /**
+         * Merges runs on top of the stack until, from the top down, every run is
+         * longer than the next one and longer than the next two together.
+         */
+        private void collapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1 && runLen[n - 2] <= runLen[n - 1] + runLen[n]) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    return;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges runs i and i + 1 of the stack. The prefix of run i no greater
+         * than the first element of run i + 1, and the suffix of run i + 1 no
+         * smaller than the last element of run i, are already in place.
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i], len1 = runLen[i];
+            final int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            final int skip = gallopRight(false, base2, false, base1, len1, false);
+            base1 += skip;
+            len1 -= skip;
+            if (len1 == 0) {
+                return;
+            }
+            len2 = gallopLeft(false, base1 + len1 - 1, false, base2, len2, false);
+            if (len2 == 0) {
+                return;
+            }
+            if (len1 <= len2) {
+                mergeLow(base1, len1, base2, len2);
+            } else {
+                mergeHigh(base1, len1, base2, len2);
+            }
+        }
+
+        /**
+         * Merges run 1, moved to the buffer, with run 2 into the array from base1
+         * on. Elements are taken one by one until a run wins minGallop times in a
+         * row; then each run in turn gallops to the end of its winning stretch,
+         * until the stretches get short again. minGallop drops while galloping
+         * pays off and rises when it does not. Ties go to run 1, for stability.
+         */
+        private void mergeLow(int base1, int len1, int base2, int len2) {
+            save(base1, len1);
+            final int end2 = base2 + len2;
+            int cursor1 = 0, cursor2 = base2, dest = base1;
+            merging:
+            while (true) {
+                int wins1 = 0, wins2 = 0;
+                do {
+                    if (compare(false, cursor2, true, cursor1) < 0) {
+                        move(false, cursor2++, dest++);
+                        wins2++;
+                        wins1 = 0;
+                        if (cursor2 == end2) {
+                            break merging;
+                        }
+                    } else {
+                        move(true, cursor1++, dest++);
+                        wins1++;
+                        wins2 = 0;
+                        if (cursor1 == len1) {
+                            break merging;
+                        }
+                    }
+                } while ((wins1 | wins2) < minGallop);
+                do {
+                    wins1 = gallopRight(false, cursor2, true, cursor1, len1 - cursor1, false);
+                    if (wins1 != 0) {
+                        copy(true, cursor1, dest, wins1);
+                        cursor1 += wins1;
+                        dest += wins1;
+                        if (cursor1 == len1) {
+                            break merging;
+                        }
+                    }
+                    move(false, cursor2++, dest++);
+                    if (cursor2 == end2) {
+                        break merging;
+                    }
+                    wins2 = gallopLeft(true, cursor1, false, cursor2, end2 - cursor2, false);
+                    if (wins2 != 0) {
+                        copy(false, cursor2, dest, wins2);
+                        cursor2 += wins2;
+                        dest += wins2;
+                        if (cursor2 == end2) {
+                            break merging;
+                        }
+                    }
+                    move(true, cursor1++, dest++);
+                    if (cursor1 == len1) {
+                        break merging;
+                    }
+                    minGallop--;
+                } while (wins1 >= MIN_GALLOP || wins2 >= MIN_GALLOP);
+                minGallop = Math.max(minGallop, 0) + 2;
+            }
+            // what is left of run 2 is already in place
+            if (cursor1 < len1) {
+                copy(true, cursor1, dest, len1 - cursor1);
+            }
+        }
+
+        /**
+         * Merges run 1 with run 2, moved to the buffer, into the array from the
+         * end of run 2 down, like {@code mergeLow} from the other side. Ties go
+         * to run 2, which is written first, for stability.
+         */
+        private void mergeHigh(int base1, int len1, int base2, int len2) {
+            save(base2, len2);
+            int cursor1 = base1 + len1 - 1, cursor2 = len2 - 1, dest = base2 + len2 - 1;
+            merging:
+            while (true) {
+                int wins1 = 0, wins2 = 0;
+                do {
+                    if (compare(true, cursor2, false, cursor1) < 0) {
+                        move(false, cursor1--, dest--);
+                        wins1++;
+                        wins2 = 0;
+                        if (cursor1 < base1) {
+                            break merging;
+                        }
+                    } else {
+                        move(true, cursor2--, dest--);
+                        wins2++;
+                        wins1 = 0;
+                        if (cursor2 < 0) {
+                            break merging;
+                        }
+                    }
+                } while ((wins1 | wins2) < minGallop);
+                do {
+                    wins1 = gallopRight(true, cursor2, false, base1, cursor1 - base1 + 1, true);
+                    if (wins1 != 0) {
+                        cursor1 -= wins1;
+                        dest -= wins1;
+                        copy(false, cursor1 + 1, dest + 1, wins1);
+                        if (cursor1 < base1) {
+                            break merging;
+                        }
+                    }
+                    move(true, cursor2--, dest--);
+                    if (cursor2 < 0) {
+                        break merging;
+                    }
+                    wins2 = gallopLeft(false, cursor1, true, 0, cursor2 + 1, true);
+                    if (wins2 != 0) {
+                        cursor2 -= wins2;
+                        dest -= wins2;
+                        copy(true, cursor2 + 1, dest + 1, wins2);
+                        if (cursor2 < 0) {
+                            break merging;
+                        }
+                    }
+                    move(false, cursor1--, dest--);
+                    if (cursor1 < base1) {
+                        break merging;
+                    }
+                    minGallop--;
+                } while (wins1 >= MIN_GALLOP || wins2 >= MIN_GALLOP);
+                minGallop = Math.max(minGallop, 0) + 2;
+            }
+            // what is left of run 1 is already in place
+            if (cursor2 >= 0) {
+                copy(true, 0, base1, cursor2 + 1);
+            }
+        }
+
+        /**
+         * Counts the elements at the start of a sorted range smaller than the
+         * key, or with fromEnd, the elements at its end no smaller than the key.
+         */
+        private int gallopLeft(boolean keyInBuffer, int key, boolean inBuffer, int base, int len, boolean fromEnd) {
+            return gallop(keyInBuffer, key, inBuffer, base, len, false, fromEnd);
+        }
+
+        /**
+         * Counts the elements at the start of a sorted range no greater than the
+         * key, or with fromEnd, the elements at its end greater than the key.
+         */
+        private int gallopRight(boolean keyInBuffer, int key, boolean inBuffer, int base, int len, boolean fromEnd) {
+            return gallop(keyInBuffer, key, inBuffer, base, len, true, fromEnd);
+        }
+
+        /**
+         * Counts the elements at one end of a sorted range that go before the key
+         * (or after it, from the end), checking offsets 0, 1, 3, 7, ... from that
+         * end and then binary-searching the last gap, so it takes O(log(k))
+         * comparisons for a count of k. Elements equal to the key go before it
+         * if ties is true.
+         */
+        private int gallop(boolean keyInBuffer, int key, boolean inBuffer, int base, int len, boolean ties,
+                boolean fromEnd) {
+            int last = -1, ofs = 0;
+            while (ofs < len && counts(keyInBuffer, key, inBuffer, base, len, ofs, ties, fromEnd)) {
+                last = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs < 0) {
+                    ofs = len;
+                }
+            }
+            int low = last + 1, high = Math.min(ofs, len);
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (counts(keyInBuffer, key, inBuffer, base, len, mid, ties, fromEnd)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Tells whether the element at an offset from one end of the range is on
+         * that end's side of the key.
+         */
+        private boolean counts(boolean keyInBuffer, int key, boolean inBuffer, int base, int len, int ofs,
+                boolean ties, boolean fromEnd) {
+            final int c = compare(inBuffer, fromEnd ? base + len - 1 - ofs : base + ofs, keyInBuffer, key);
+            final boolean before = ties ? c <= 0 : c < 0;
+            return before != fromEnd;
+        }
+    }
+
+    private static final class IntRuns extends Runs {
+        private final int[] arr;
+        private int[] buffer = new int[0];
+
+        private IntRuns(int[] arr) {
+            super(arr.length);
+            this.arr = arr;
+        }
+
+        @Override
+        protected int compare(boolean iInBuffer, int i, boolean jInBuffer, int j) {
+            return Integer.compare(iInBuffer ? buffer[i] : arr[i], jInBuffer ? buffer[j] : arr[j]);
+        }
+
+        @Override
+        protected void move(boolean fromBuffer, int from, int to) {
+            arr[to] = fromBuffer ? buffer[from] : arr[from];
+        }
+
+        @Override
+        protected void copy(boolean fromBuffer, int from, int to, int len) {
+            System.arraycopy(fromBuffer ? buffer : arr, from, arr, to, len);
+        }
+
+        @Override
+        protected void save(int from, int len) {
+            if (buffer.length < len) {
+                buffer = new int[Math.max(len, Math.min(buffer.length << 1, arr.length >>> 1))];
+            }
+            System.arraycopy(arr, from, buffer, 0, len);
+        }
+
+        @Override
+        protected void swap(int i, int j) {
+            final int temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        }
+
+        @Override
+        protected void binarySort(int lo, int hi, int start) {
+            InsertionSort.binarySort(arr, lo, hi, start);
+        }
+    }
+
+    private static final class ObjectRuns<T> extends Runs {
+        private final T[] arr;
+        private final Comparator<? super T> comparator;
+        private Object[] buffer = new Object[0];
+
+        private ObjectRuns(T[] arr, Comparator<? super T> comparator) {
+            super(arr.length);
+            this.arr = arr;
+            this.comparator = comparator;
+        }
+
+        @SuppressWarnings("unchecked")
+        private T get(boolean inBuffer, int i) {
+            return inBuffer ? (T) buffer[i] : arr[i];
+        }
+
+        @Override
+        protected int compare(boolean iInBuffer, int i, boolean jInBuffer, int j) {
+            return comparator.compare(get(iInBuffer, i), get(jInBuffer, j));
+        }
+
+        @Override
+        protected void move(boolean fromBuffer, int from, int to) {
+            arr[to] = get(fromBuffer, from);
+        }
+
+        @Override
+        protected void copy(boolean fromBuffer, int from, int to, int len) {
+            System.arraycopy(fromBuffer ? buffer : arr, from, arr, to, len);
+        }
+
+        @Override
+        protected void save(int from, int len) {
+            if (buffer.length < len) {
+                buffer = new Object[Math.max(len, Math.min(buffer.length << 1, arr.length >>> 1))];
+            }
+            System.arraycopy(arr, from, buffer, 0, len);
+        }
+
+        @Override
+        protected void swap(int i, int j) {
+            final T temp = arr[i];
+            arr[i] = arr[j];
+            arr[j] = temp;
+        }
+
+        @Override
+        protected void binarySort(int lo, int hi, int start) {
+            InsertionSort.binarySort(arr, lo, hi, start, comparator);
+        }
+    }
+
+    public static void main(String[] args) {
+        final int num = 10000000;
+        int[] arr = new int[num];
+        for (int i = 0; i < num; i++) {
+            arr[i] = Math.random() < 0.95 ? i : (int) (Math.random() * num);
+        }
+        long begin = System.currentTimeMillis();
+        sort(arr);
+        long end = System.currentTimeMillis();
+        System.out.println("95% sorted: " + (end - begin));
+    }
+}
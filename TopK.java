@@ -0,0 +1,132 @@
+import java.util.Arrays;
+import java.util.stream.Collector;
+import java.util.stream.LongStream;
+
+/**
+ * Keeps the k largest values of a stream of any length in O(k) memory. The
+ * values are held in a {@link LongHeap} min-heap of at most k values, whose
+ * first value is the smallest one kept, the threshold a new value must beat:
+ * <p>
+ * A value that does not beat the threshold is dropped after one comparison,
+ * which is the common case once the heap is full. A value that does replaces
+ * the threshold in a single sift down of O(log(k)).
+ * <p>
+ * Collectors filled by different threads merge by feeding one heap into the
+ * other, which takes O(k log(k)) whatever the lengths of their streams. This is
+ * what {@code collector} does for parallel streams of boxed longs; primitive
+ * streams can use
+ * {@code stream.collect(() -> new TopK(k), TopK::add, TopK::merge)}.
+ *
+ * @version 1.0
+ * @see LongHeap
+ * @see Selection
+ */
+public class TopK {
+    private final int k;
+    private final LongHeap heap;
+    private long threshold; // smallest value kept, once the heap is full
+
+    /**
+     * Creates an empty collector.
+     *
+     * @param k number of values kept, at least 1
+     */
+    public TopK(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        heap = new LongHeap(k, false);
+    }
+
+    public int k() {
+        return k;
+    }
+
+    /**
+     * Returns the number of values kept, which is k once k values have been seen.
+     *
+     * @return number of values kept
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Offers a value to the collector.
+     *
+     * @param value value from the stream
+     */
+    public void add(long value) {
+        if (heap.size() < k) {
+            heap.add(value);
+            if (heap.size() == k) {
+                threshold = heap.peek();
+            }
+        } else if (value > threshold) {
+            heap.replaceTop(value);
+            threshold = heap.peek();
+        }
+    }
+
+    /**
+     * Offers every value kept by another collector to this one. The other
+     * collector is not modified.
+     *
+     * @param other collector to be merged
+     */
+    public void merge(TopK other) {
+        for (long value : other.heap.toArray()) {
+            add(value);
+        }
+    }
+
+    /**
+     * Returns the values kept, largest first.
+     *
+     * @return at most k values in descending order
+     */
+    public long[] toArray() {
+        final long[] values = heap.toArray();
+        Arrays.sort(values);
+        for (int i = 0, j = values.length - 1; i < j; i++, j--) {
+            final long temp = values[i];
+            values[i] = values[j];
+            values[j] = temp;
+        }
+        return values;
+    }
+
+    /**
+     * Returns a collector for the k largest values of a stream, largest first.
+     *
+     * @param k number of values kept
+     * @return collector producing at most k values in descending order
+     */
+    public static Collector<Long, TopK, long[]> collector(int k) {
+        return Collector.of(() -> new TopK(k), TopK::add, (x, y) -> {
+            if (x.size() < y.size()) {
+                y.merge(x);
+                return y;
+            }
+            x.merge(y);
+            return x;
+        }, TopK::toArray, Collector.Characteristics.UNORDERED);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    public static void main(String[] args) {
+        final int num = 100000000;
+        long begin = System.currentTimeMillis();
+        TopK top = LongStream.range(0, num).parallel()
+                .map(i -> (i * 0x9e3779b97f4a7c15L) >>> 1)
+                .collect(() -> new TopK(10), TopK::add, TopK::merge);
+        long end = System.currentTimeMillis();
+        System.out.println(top);
+        System.out.println("TopK: " + (end - begin));
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Throughput of {@link ConcurrentRedBlackTree} against a {@link RedBlackTree}
+ * behind one synchronized block and against the JDK's lock-free
+ * {@code ConcurrentSkipListMap}. The map starts with half of {@code keys}
+ * random keys; each operation picks a random key and is a write with
+ * probability {@code writes} percent, half puts and half removes so the size
+ * stays put, and a get otherwise. The scan benchmark reads a range of about
+ * 100 keys instead of one. {@code main} runs the benchmarks at 1 to 32
+ * threads; a single run can also be started with the JMH {@code -t} option.
+ *
+ * @version 1.0
+ * @see ConcurrentPriorityQueueBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ConcurrentMapBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+    private static final int SCAN_WIDTH = 200;
+
+    @Param({"1000000"})
+    public int keys;
+
+    @Param({"5", "50"})
+    public int writes;
+
+    @Param({"synchronized", "stamped", "skiplist"})
+    public String map;
+
+    private RedBlackTree<Integer, Integer> locked;
+    private ConcurrentRedBlackTree<Integer, Integer> stamped;
+    private ConcurrentSkipListMap<Integer, Integer> skipList;
+
+    @Setup
+    public void setup() {
+        switch (map) {
+            case "synchronized":
+                locked = new RedBlackTree<>();
+                break;
+            case "stamped":
+                stamped = new ConcurrentRedBlackTree<>();
+                break;
+            case "skiplist":
+                skipList = new ConcurrentSkipListMap<>();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown map: " + map);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < keys >> 1; i++) {
+            put(random.nextInt(keys));
+        }
+    }
+
+    @Benchmark
+    public Integer point() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int key = random.nextInt(keys);
+        final int operation = random.nextInt(200);
+        if (operation < writes) {
+            return put(key);
+        }
+        if (operation < writes << 1) {
+            return remove(key);
+        }
+        return get(key);
+    }
+
+    @Benchmark
+    public long scan() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int key = random.nextInt(keys);
+        final int operation = random.nextInt(200);
+        if (operation < writes) {
+            return put(key) == null ? 0 : 1;
+        }
+        if (operation < writes << 1) {
+            return remove(key) == null ? 0 : 1;
+        }
+        final long[] sum = new long[1];
+        final int hi = key + SCAN_WIDTH;
+        if (locked != null) {
+            synchronized (locked) {
+                locked.rangeScan(key, hi, (k, v) -> sum[0] += v);
+            }
+        } else if (stamped != null) {
+            stamped.rangeScan(key, hi, (k, v) -> sum[0] += v);
+        } else {
+            skipList.subMap(key, true, hi, true).forEach((k, v) -> sum[0] += v);
+        }
+        return sum[0];
+    }
+
+    private Integer get(int key) {
+        if (locked != null) {
+            synchronized (locked) {
+                return locked.get(key);
+            }
+        }
+        return stamped != null ? stamped.get(key) : skipList.get(key);
+    }
+
+    private Integer put(int key) {
+        if (locked != null) {
+            synchronized (locked) {
+                return locked.put(key, key);
+            }
+        }
+        return stamped != null ? stamped.put(key, key) : skipList.put(key, key);
+    }
+
+    private Integer remove(int key) {
+        if (locked != null) {
+            synchronized (locked) {
+                return locked.remove(key);
+            }
+        }
+        return stamped != null ? stamped.remove(key) : skipList.remove(key);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentMapBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
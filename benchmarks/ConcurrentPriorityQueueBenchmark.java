@@ -0,0 +1,96 @@
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Throughput of {@link ConcurrentPriorityQueue} against a {@link Heap} behind
+ * one global lock, with every thread both producing and consuming: each
+ * operation adds a random priority and removes one, so the queue stays at its
+ * initial size. {@code main} runs the benchmark at 1 to 64 threads; a single
+ * run can also be started with the JMH {@code -t} option.
+ *
+ * @version 1.0
+ * @see HeapBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ConcurrentPriorityQueueBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"locked", "strict", "relaxed"})
+    public String queue;
+
+    private ConcurrentPriorityQueue<Long> concurrent;
+    private Heap<Long> locked;
+
+    @Setup
+    public void setup() {
+        switch (queue) {
+            case "locked":
+                locked = new Heap<>(size, false);
+                break;
+            case "strict":
+                concurrent = ConcurrentPriorityQueue.strict(Comparator.naturalOrder());
+                break;
+            case "relaxed":
+                concurrent = ConcurrentPriorityQueue.relaxed(Comparator.naturalOrder());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown queue: " + queue);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < size; i++) {
+            final long priority = random.nextLong(size);
+            if (locked != null) {
+                locked.add(priority);
+            } else {
+                concurrent.add(priority);
+            }
+        }
+    }
+
+    @Benchmark
+    public Long addPoll() {
+        final long priority = ThreadLocalRandom.current().nextLong(size);
+        if (locked != null) {
+            synchronized (locked) {
+                locked.add(priority);
+                return locked.remove();
+            }
+        }
+        concurrent.add(priority);
+        return concurrent.poll();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : THREADS) {
+            Options options = new OptionsBuilder()
+                    .include(ConcurrentPriorityQueueBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the binary {@link PriorityQueue} with {@link DaryHeap} and
+ * {@link PairingHeap} the way a timer queue uses them: each heap is filled
+ * with {@code size} elements, then every operation removes the first element
+ * and adds it back a random distance later (the hold model), so the size
+ * stays constant while the elements churn through the whole heap.
+ * {@code PriorityQueue} is a max-heap, so it holds negated times.
+ * <p>
+ * The heapsort benchmarks sort the same {@code size} random elements with
+ * each structure. {@code DaryHeap} with arity 2 is the binary layout with the
+ * same code, which separates the effect of the arity from the rest.
+ *
+ * @version 1.0
+ * @see SortingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Thread)
+public class HeapBenchmark {
+    private static final int OPERATIONS = 1 << 16;
+
+    @Param({"1000000"})
+    public int size;
+
+    private int[] delays, times, input, work, binaryWork;
+    private PriorityQueue binary;
+    private PairingHeap pairing;
+
+    /**
+     * State of the {@link DaryHeap} benchmarks, the only ones that depend on
+     * the arity, so the others run once rather than once per arity.
+     */
+    @State(Scope.Thread)
+    public static class Dary {
+        @Param({"2", "4", "8"})
+        public int arity;
+
+        private DaryHeap heap;
+        private int[] work;
+
+        @Setup
+        public void setup(HeapBenchmark benchmark) {
+            heap = new DaryHeap(arity, benchmark.size);
+            for (int time : benchmark.times) {
+                heap.add(time);
+            }
+            work = new int[benchmark.size];
+        }
+    }
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0x5eed);
+        delays = new int[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            delays[i] = 1 + random.nextInt(size);
+        }
+        times = new int[size];
+        input = new int[size];
+        binary = new PriorityQueue(size);
+        pairing = new PairingHeap();
+        for (int i = 0; i < size; i++) {
+            final int time = random.nextInt(size);
+            times[i] = time;
+            input[i] = random.nextInt();
+            binary.add(-time);
+            pairing.add(time);
+        }
+        work = new int[size];
+        binaryWork = new int[size + 1];
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int binaryHold() {
+        int time = 0;
+        for (int delay : delays) {
+            time = binary.remove();
+            binary.add(time - delay);
+        }
+        return time;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int daryHold(Dary dary) {
+        int time = 0;
+        for (int delay : delays) {
+            time = dary.heap.remove();
+            dary.heap.add(time + delay);
+        }
+        return time;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public int pairingHold() {
+        int time = 0;
+        for (int delay : delays) {
+            time = pairing.remove();
+            pairing.add(time + delay);
+        }
+        return time;
+    }
+
+    @Benchmark
+    public int[] binaryHeapSort() {
+        System.arraycopy(input, 0, binaryWork, 1, size);
+        return new PriorityQueue(binaryWork).heapSort();
+    }
+
+    @Benchmark
+    public int[] daryHeapSort(Dary dary) {
+        System.arraycopy(input, 0, dary.work, 0, size);
+        DaryHeap.heapSort(dary.work, dary.arity);
+        return dary.work;
+    }
+
+    @Benchmark
+    public int[] pairingHeapSort() {
+        System.arraycopy(input, 0, work, 0, size);
+        PairingHeap.heapSort(work);
+        return work;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(HeapBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Strong scaling of {@link SampleSort}: the same input sorted on pools of 1 to
+ * 64 threads. Each pool is created for the trial, so the speedup at n threads
+ * is the time at 1 thread divided by the time at n. The 1 thread pool runs the
+ * sample sort too, not a sequential sort, so the curve measures scaling alone.
+ * <p>
+ * The default sizes fit in a 4 GB heap. For the 1e9 element runs, pass
+ * {@code -p size=1000000000} and {@code -jvmArgsAppend -Xmx16g}: the sort
+ * needs a destination buffer and a bucket oracle of 6 bytes per element on
+ * top of the 4 byte input.
+ *
+ * @version 1.0
+ * @see SortingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class SampleSortBenchmark {
+    @Param({"10000000", "100000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int threads;
+
+    @Param({"random", "fewDistinct", "zipf"})
+    public String distribution;
+
+    private int[] input, work;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        input = SortingBenchmark.generate(distribution, size, 0x5eed);
+        work = new int[size];
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] sampleSort() {
+        System.arraycopy(input, 0, work, 0, size);
+        SampleSort.parallelSort(work, pool);
+        return work;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SampleSortBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,116 @@
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Single-source shortest paths with {@link Dijkstra} on an
+ * {@link IndexedPriorityQueue} and on a {@link RadixHeap}, on two kinds of
+ * graph with {@code side * side} vertices:
+ * <p>
+ * grid: every vertex is joined both ways to its four neighbors, with uniform
+ * random weights from 1 to 100.
+ * <p>
+ * road: the vertices are jittered grid points joined to their neighbors with
+ * weights equal to the scaled distance between them. A tenth of the local
+ * roads are missing, and every eighth row and column is a highway whose
+ * segments cost a third, so shortest paths mostly leave the local roads for
+ * the nearest highway, like routes on a road network.
+ *
+ * @version 1.0
+ * @see HeapBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ShortestPathBenchmark {
+    private static final int[][] DIRECTIONS = {{0, 1}, {1, 0}, {0, -1}, {-1, 0}};
+
+    @Param({"300", "1000", "3000"})
+    public int side;
+
+    @Param({"grid", "road"})
+    public String graph;
+
+    private int[] offsets, targets, weights;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0x5eed);
+        final int n = side * side;
+        final double[] x = new double[n], y = new double[n];
+        for (int v = 0; v < n; v++) {
+            x[v] = v % side + random.nextDouble() * 0.5;
+            y[v] = v / side + random.nextDouble() * 0.5;
+        }
+        offsets = new int[n + 1];
+        targets = new int[n << 2];
+        weights = new int[n << 2];
+        int edges = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v] = edges;
+            final int r = v / side, c = v % side;
+            for (int[] d : DIRECTIONS) {
+                final int nr = r + d[0], nc = c + d[1];
+                if (nr < 0 || nr >= side || nc < 0 || nc >= side) {
+                    continue;
+                }
+                final int u = nr * side + nc;
+                if (graph.equals("grid")) {
+                    weights[edges] = 1 + random.nextInt(100);
+                } else {
+                    final boolean highway = (d[0] == 0 && r % 8 == 0) || (d[1] == 0 && c % 8 == 0);
+                    if (!highway && isMissing(u, v)) {
+                        continue;
+                    }
+                    final int length = (int) (100 * Math.hypot(x[u] - x[v], y[u] - y[v]));
+                    weights[edges] = highway ? 1 + length / 3 : 1 + length;
+                }
+                targets[edges++] = u;
+            }
+        }
+        offsets[n] = edges;
+    }
+
+    /**
+     * Hashes the pair of vertices rather than drawing at random, so both
+     * directions of a road agree on whether it is missing.
+     */
+    private static boolean isMissing(int u, int v) {
+        final long h = ((long) Math.min(u, v) * 0x9e3779b97f4a7c15L ^ Math.max(u, v)) * 0xbf58476d1ce4e5b9L;
+        return (h >>> 32) % 10 == 0;
+    }
+
+    @Benchmark
+    public long[] indexedHeap() {
+        return Dijkstra.shortestPaths(offsets, targets, weights, 0);
+    }
+
+    @Benchmark
+    public long[] radixHeap() {
+        return Dijkstra.radixShortestPaths(offsets, targets, weights, 0);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ShortestPathBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,313 @@
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for every sort in the repository. Replaces the wall-clock
+ * timing in {@link SortingTimeComplexity}: each benchmark is warmed up, runs
+ * in a forked JVM, returns its result so that it cannot be eliminated as dead
+ * code, and is run on several input distributions instead of uniform random
+ * data only.
+ * <p>
+ * The O(n log(n)) sorts run on {@link Large} inputs of 1e2 to 1e8 elements.
+ * The quadratic sorts, the boxing sorts and the classic first-element
+ * {@code QuickSort.quickSort} (which overflows the stack on large sorted
+ * input) run on {@link Small} inputs of up to 1e4 elements.
+ * <p>
+ * Each invocation first copies the pristine input into a preallocated work
+ * array, so the allocation rate reported by the GC profiler is the sort's own.
+ * The boxed input is boxed once, and copied by reference; the linked lists of
+ * the {@link MergeSortList} sorts are built before each invocation, outside
+ * the measurement, by {@link SmallList}.
+ * <p>
+ * To run, compile the repository classes together with this directory against
+ * {@code jmh-core} with the {@code jmh-generator-annprocess} annotation
+ * processor, then run {@code main} (or {@code org.openjdk.jmh.Main} with the
+ * usual JMH options, e.g. {@code -prof gc}).
+ *
+ * @version 1.1
+ * @see SortingTimeComplexity
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SortingBenchmark {
+    private static final long SEED = 0x5eed;
+
+    /**
+     * Input for the O(n log(n)) sorts.
+     */
+    @State(Scope.Thread)
+    public static class Large {
+        @Param({"100", "10000", "1000000", "100000000"})
+        public int size;
+
+        @Param({"random", "sorted", "reversed", "sawtooth", "fewDistinct", "zipf", "nearlySorted"})
+        public String distribution;
+
+        int[] input, work;
+
+        @Setup
+        public void setup() {
+            input = generate(distribution, size, SEED);
+            work = new int[size];
+        }
+
+        int[] next() {
+            System.arraycopy(input, 0, work, 0, input.length);
+            return work;
+        }
+    }
+
+    /**
+     * Input for the quadratic and boxing sorts.
+     */
+    @State(Scope.Thread)
+    public static class Small {
+        @Param({"100", "1000", "10000"})
+        public int size;
+
+        @Param({"random", "sorted", "reversed", "sawtooth", "fewDistinct", "zipf", "nearlySorted"})
+        public String distribution;
+
+        int[] input, work;
+        Integer[] values, boxed;
+
+        @Setup
+        public void setup() {
+            input = generate(distribution, size, SEED);
+            work = new int[size];
+            values = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = input[i];
+            }
+            boxed = new Integer[size];
+        }
+
+        int[] next() {
+            System.arraycopy(input, 0, work, 0, input.length);
+            return work;
+        }
+
+        Integer[] nextBoxed() {
+            System.arraycopy(values, 0, boxed, 0, values.length);
+            return boxed;
+        }
+    }
+
+    /**
+     * Small input as a fresh linked list for every invocation, so building the
+     * list is neither timed nor counted as the sort's allocation. Setup per
+     * invocation costs a timestamp on each side, which is small against even
+     * the 100 element sorts.
+     */
+    @State(Scope.Thread)
+    public static class SmallList {
+        List<Integer> list;
+
+        @Setup(Level.Invocation)
+        public void setup(Small in) {
+            list = new LinkedList<>(Arrays.asList(in.values));
+        }
+    }
+
+    /**
+     * Generates non-negative keys, so that the decimal {@code RadixSort} can sort
+     * them as well.
+     *
+     * @param distribution one of random, sorted, reversed, sawtooth, fewDistinct,
+     *                     zipf or nearlySorted
+     * @param size         number of keys
+     * @param seed         seed of the random generator
+     * @return generated keys
+     */
+    static int[] generate(String distribution, int size, long seed) {
+        final Random random = new Random(seed);
+        final int[] arr = new int[size];
+        switch (distribution) {
+            case "random":
+                for (int i = 0; i < size; i++) {
+                    arr[i] = random.nextInt(Integer.MAX_VALUE);
+                }
+                break;
+            case "sorted":
+                for (int i = 0; i < size; i++) {
+                    arr[i] = i;
+                }
+                break;
+            case "reversed":
+                for (int i = 0; i < size; i++) {
+                    arr[i] = size - i;
+                }
+                break;
+            case "sawtooth":
+                final int tooth = Math.max(1, (int) Math.sqrt(size));
+                for (int i = 0; i < size; i++) {
+                    arr[i] = i % tooth;
+                }
+                break;
+            case "fewDistinct":
+                for (int i = 0; i < size; i++) {
+                    arr[i] = random.nextInt(16);
+                }
+                break;
+            case "zipf":
+                // Rank k is drawn with probability proportional to 1/k
+                final int ranks = Math.max(1, Math.min(size, 1 << 20));
+                final double[] cumulative = new double[ranks];
+                double sum = 0;
+                for (int k = 0; k < ranks; k++) {
+                    sum += 1.0 / (k + 1);
+                    cumulative[k] = sum;
+                }
+                for (int i = 0; i < size; i++) {
+                    int k = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+                    arr[i] = k < 0 ? -k - 1 : k;
+                }
+                break;
+            case "nearlySorted":
+                // An appended log: 95% in order, 5% late arrivals
+                for (int i = 0; i < size; i++) {
+                    arr[i] = random.nextInt(100) < 95 ? i : random.nextInt(size);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown distribution: " + distribution);
+        }
+        return arr;
+    }
+
+    @Benchmark
+    public int[] introSort(Large in) {
+        int[] arr = in.next();
+        IntroSort.sort(arr, 0, arr.length - 1);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quickSortParallel(Large in) {
+        int[] arr = in.next();
+        QuickSort.parallelSort(arr, 0, arr.length - 1);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] mergeSortParallel(Large in) {
+        int[] arr = in.next();
+        MergeSort.parallelSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSort(Large in) {
+        int[] arr = in.next();
+        RadixSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSortParallel(Large in) {
+        int[] arr = in.next();
+        RadixSort.parallelSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] timSort(Large in) {
+        int[] arr = in.next();
+        TimSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] jdkSort(Large in) {
+        int[] arr = in.next();
+        Arrays.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] quickSort(Small in) {
+        int[] arr = in.next();
+        QuickSort.quickSort(arr, 0, arr.length - 1);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] mergeSort(Small in) {
+        int[] arr = in.next();
+        MergeSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] radixSortDecimal(Small in) {
+        return RadixSort.sort(in.next(), 10);
+    }
+
+    @Benchmark
+    public Integer[] heapSort(Small in) {
+        return new HeapSort<Integer>().sort(in.nextBoxed());
+    }
+
+    @Benchmark
+    public int[] insertionSort(Small in) {
+        int[] arr = in.next();
+        InsertionSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] bubbleSort(Small in) {
+        int[] arr = in.next();
+        BubbleSort.bubbleSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] smartBubbleSort(Small in) {
+        int[] arr = in.next();
+        BubbleSort.smartBubbleSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public List<Integer> mergeSortList(SmallList in) {
+        return MergeSortList.mergeSort(in.list);
+    }
+
+    @Benchmark
+    public List<Integer> naturalMergeSortList(SmallList in) {
+        MergeSortList.sort(in.list, null);
+        return in.list;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SortingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}